@@ -69,11 +69,20 @@ public class ServiceManager {
 	public static final String SERVICE_TIMEOUT_VALIDATION_ENABLED = "service.timeout.validation.isEnabled";
 	public static final String SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_SECONDS = "service.timeout.validation.delay.between.attempt.seconds";
 	public static final String SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MULTIPLIER = "service.timeout.validation.delay.between.attempt.multiplier";
+	public static final String SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MAX_SECONDS = "service.timeout.validation.delay.between.attempt.max.seconds";
+	public static final String SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_JITTER = "service.timeout.validation.delay.between.attempt.jitter";
+
+	// polling for results. eg. sql rows, outbound messages
+	public static final String SERVICE_POLL_INITIAL_DELAY_MILLIS = "service.poll.initial.delay.millis";
+	public static final String SERVICE_POLL_MAX_DELAY_MILLIS = "service.poll.max.delay.millis";
+	public static final String SERVICE_POLL_MULTIPLIER = "service.poll.multiplier";
+	public static final String SERVICE_POLL_JITTER = "service.poll.jitter";
 
 	public static final String OPTION_RETRY_COUNT = "RETRY_COUNT";
 	public static final String OPTION_RETRY_AFTER_SECONDS = "RETRY_AFTER_SECONDS";
 	public static final String SERVICE_RETRY_COUNT = "service.retry.count";
 	public static final String SERVICE_RETRY_AFTER_SERCONDS = "service.retry.after.seconds";
+	public static final String SERVICE_RETRY_AFTER_MULTIPLIER = "service.retry.after.multiplier";
 
 	public static final String DEPENDS_ON_TEST = "DEPENDS_ON_TEST";
 
@@ -121,6 +121,7 @@ public class ApiTestDriver {
 		
 		if(isRunningServiceTest()) {
 			ApiTestDriver.getParentTestObject().testLog.addAll(TestObject.getTestInfo().testLog);
+			TestLog.trimLogs(ApiTestDriver.getParentTestObject());
 			TestObject.getTestInfo().testLogAll.addAll(ApiTestDriver.getParentTestObject().testLog);
 		}else
 			TestObject.getTestInfo().testLogAll.addAll(TestObject.getTestInfo().testLog);
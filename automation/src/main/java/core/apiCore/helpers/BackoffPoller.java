@@ -0,0 +1,153 @@
+package core.apiCore.helpers;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import core.apiCore.ServiceManager;
+import core.helpers.Helper;
+import core.support.configReader.Config;
+
+/**
+ * polling delays with exponential backoff and jitter
+ * delay starts at initial delay, grows by multiplier per attempt, and is capped at max delay
+ * jitter spreads the delay by +/- jitter fraction, so parallel tests do not poll in lock step
+ *
+ * eg. initial: 100ms, multiplier: 2, max: 5000ms -> 100, 200, 400, 800 ... 5000
+ */
+public class BackoffPoller {
+
+	private static final long DEFAULT_POLL_INITIAL_DELAY_MILLIS = 100;
+	private static final long DEFAULT_POLL_MAX_DELAY_MILLIS = 5000;
+	private static final double DEFAULT_POLL_MULTIPLIER = 2;
+	private static final double DEFAULT_POLL_JITTER = 0.2;
+
+	private final long initialDelayMillis;
+	private final double multiplier;
+	private final long maxDelayMillis;
+	private final double jitter;
+
+	private int attempt = 0;
+	private long deadline = Long.MAX_VALUE;
+
+	public BackoffPoller(long initialDelayMillis, double multiplier, long maxDelayMillis, double jitter) {
+		this.initialDelayMillis = Math.max(0, initialDelayMillis);
+		this.multiplier = multiplier > 0 ? multiplier : 1;
+		this.maxDelayMillis = maxDelayMillis > 0 ? maxDelayMillis : Long.MAX_VALUE;
+		this.jitter = Math.min(1, Math.max(0, jitter));
+	}
+
+	/**
+	 * poller for waiting on a result. eg. sql rows, outbound messages
+	 * service.poll.initial.delay.millis, service.poll.multiplier,
+	 * service.poll.max.delay.millis, service.poll.jitter
+	 *
+	 * @return
+	 */
+	public static BackoffPoller forPolling() {
+		long initial = (long) getConfigValue(ServiceManager.SERVICE_POLL_INITIAL_DELAY_MILLIS,
+				DEFAULT_POLL_INITIAL_DELAY_MILLIS);
+		double multiplier = getConfigValue(ServiceManager.SERVICE_POLL_MULTIPLIER, DEFAULT_POLL_MULTIPLIER);
+		long max = (long) getConfigValue(ServiceManager.SERVICE_POLL_MAX_DELAY_MILLIS, DEFAULT_POLL_MAX_DELAY_MILLIS);
+		double jitter = getConfigValue(ServiceManager.SERVICE_POLL_JITTER, DEFAULT_POLL_JITTER);
+		return new BackoffPoller(initial, multiplier, max, jitter);
+	}
+
+	/**
+	 * poller for validation retries
+	 * service.timeout.validation.delay.between.attempt.seconds, .multiplier, .max.seconds, .jitter
+	 *
+	 * @return
+	 */
+	public static BackoffPoller forValidationRetry() {
+		double initialSeconds = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_SECONDS, 0);
+		double multiplier = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MULTIPLIER, 1);
+		double maxSeconds = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MAX_SECONDS, -1);
+		double jitter = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_JITTER, 0);
+		return new BackoffPoller((long) (initialSeconds * 1000), multiplier, (long) (maxSeconds * 1000), jitter);
+	}
+
+	/**
+	 * poller for service retries after failure
+	 * service.retry.after.seconds, service.retry.after.multiplier
+	 *
+	 * @return
+	 */
+	public static BackoffPoller forServiceRetry() {
+		double initialSeconds = getConfigValue(ServiceManager.SERVICE_RETRY_AFTER_SERCONDS, 0);
+		double multiplier = getConfigValue(ServiceManager.SERVICE_RETRY_AFTER_MULTIPLIER, 1);
+		double maxSeconds = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MAX_SECONDS, -1);
+		double jitter = getConfigValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_JITTER, 0);
+		return new BackoffPoller((long) (initialSeconds * 1000), multiplier, (long) (maxSeconds * 1000), jitter);
+	}
+
+	/**
+	 * sets deadline. waits do not exceed the deadline
+	 *
+	 * @param timeoutMillis
+	 * @return
+	 */
+	public BackoffPoller withTimeout(long timeoutMillis) {
+		this.deadline = System.currentTimeMillis() + timeoutMillis;
+		return this;
+	}
+
+	/**
+	 * gets delay for next attempt, and moves to next attempt
+	 *
+	 * @return delay in milliseconds
+	 */
+	public long nextDelayMillis() {
+		attempt++;
+		if (initialDelayMillis == 0)
+			return 0;
+
+		double delay = initialDelayMillis * Math.pow(multiplier, attempt - 1);
+		delay = Math.min(delay, maxDelayMillis);
+
+		if (jitter > 0)
+			delay = delay * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1));
+
+		delay = Math.min(delay, maxDelayMillis);
+		delay = Math.min(delay, getRemainingMillis());
+		return (long) Math.max(0, delay);
+	}
+
+	/**
+	 * waits for next delay
+	 *
+	 * @return waited time in milliseconds
+	 */
+	public long waitNext() {
+		long delay = nextDelayMillis();
+		if (delay > 0)
+			Helper.waitForSeconds(delay / 1000.0);
+		return delay;
+	}
+
+	public boolean isTimedOut() {
+		return getRemainingMillis() <= 0;
+	}
+
+	public long getRemainingMillis() {
+		if (deadline == Long.MAX_VALUE)
+			return Long.MAX_VALUE;
+		return deadline - System.currentTimeMillis();
+	}
+
+	public int getAttempt() {
+		return attempt;
+	}
+
+	/**
+	 * restarts delays from initial delay. eg. after progress was made
+	 */
+	public void reset() {
+		attempt = 0;
+	}
+
+	private static double getConfigValue(String key, double defaultValue) {
+		String value = Config.getValue(key);
+		if (value.isEmpty())
+			return defaultValue;
+		return Double.valueOf(value);
+	}
+}
@@ -0,0 +1,216 @@
+package core.apiCore.helpers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180ParserBuilder;
+
+import core.helpers.Helper;
+import core.support.configReader.Config;
+
+/**
+ * index of csv test directories and parsed csv files
+ * each directory is listed once per run, file lookups by index and name use the cached list
+ * csv files are parsed on a fork join pool. the data provider preloads all test files, and waits only for the file it runs,
+ * so tests start while later files are still being parsed
+ * files are read as a stream, so large files are not held in memory while parsing
+ * a preloaded file is kept until its rows are taken, files that are not preloaded are parsed on each call
+ */
+public class CsvFileIndex {
+
+	public static final String CSV_PARSE_THREAD_COUNT = "api.csv.parse.threads";
+
+	// key: directory path and include sub directory flag
+	private static final Map<String, CsvFileIndex> directories = new ConcurrentHashMap<String, CsvFileIndex>();
+
+	// key: file path. value: preloaded csv file, removed once taken
+	private static final Map<String, CompletableFuture<CsvFile>> parsedFiles = new ConcurrentHashMap<String, CompletableFuture<CsvFile>>();
+
+	private static volatile ForkJoinPool pool = null;
+
+	private final List<File> files;
+
+	/**
+	 * parsed csv file: header, and rows with run flag set to Y and test case id set
+	 */
+	public static class CsvFile {
+		public final String[] header;
+		public final String testCaseSuite;
+		final List<String[]> rows;
+		final long lastModified;
+		final long length;
+
+		CsvFile(String[] header, String testCaseSuite, List<String[]> rows, long lastModified, long length) {
+			this.header = header;
+			this.testCaseSuite = testCaseSuite;
+			this.rows = rows;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		/**
+		 * returns the rows. parsed files are not shared, rows are updated by the test runner
+		 *
+		 * @return
+		 */
+		public List<Object[]> getRows() {
+			return new ArrayList<Object[]>(rows);
+		}
+
+		boolean isCurrent(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+
+	private CsvFileIndex(List<File> files) {
+		this.files = Collections.unmodifiableList(files);
+	}
+
+	/**
+	 * gets the index of csv directory. directory is listed on first call
+	 *
+	 * @param csvDir                full path to csv directory
+	 * @param includeSubDirectories
+	 * @return
+	 */
+	public static CsvFileIndex getIndex(String csvDir, boolean includeSubDirectories) {
+		String key = csvDir + File.pathSeparator + includeSubDirectories;
+		return directories.computeIfAbsent(key,
+				k -> new CsvFileIndex(Helper.getFileListByType(csvDir, ".csv", includeSubDirectories)));
+	}
+
+	/**
+	 * clears directory and parsed file indexes. called at suite start, so csv files added between suites are listed
+	 */
+	public static void invalidate() {
+		directories.clear();
+		parsedFiles.clear();
+	}
+
+	/**
+	 * returns a new list of csv files in the directory
+	 *
+	 * @return
+	 */
+	public ArrayList<File> getFiles() {
+		return new ArrayList<File>(files);
+	}
+
+	public int size() {
+		return files.size();
+	}
+
+	/**
+	 * starts parsing of csv files on the parse pool, in list order
+	 *
+	 * @param csvFiles
+	 * @param separator
+	 */
+	public static void preload(List<File> csvFiles, char separator) {
+		for (File file : csvFiles)
+			parsedFiles.computeIfAbsent(getKey(file, separator), k -> parseAsync(file, separator));
+	}
+
+	/**
+	 * gets parsed csv file. a preloaded file is removed from the index, and waited for if it is being parsed
+	 * files that are not preloaded, or modified since they were preloaded, are parsed on the current thread
+	 *
+	 * @param file
+	 * @param separator
+	 * @return
+	 */
+	public static CsvFile getCsvFile(File file, char separator) {
+		CompletableFuture<CsvFile> preloaded = parsedFiles.remove(getKey(file, separator));
+		if (preloaded != null) {
+			CsvFile csvFile = preloaded.join();
+			if (csvFile.isCurrent(file))
+				return csvFile;
+		}
+		return parse(file, separator);
+	}
+
+	private static String getKey(File file, char separator) {
+		return file.getAbsolutePath() + File.pathSeparator + separator;
+	}
+
+	private static CompletableFuture<CsvFile> parseAsync(File file, char separator) {
+		CompletableFuture<CsvFile> future = new CompletableFuture<CsvFile>();
+		getPool().execute(() -> {
+			try {
+				future.complete(parse(file, separator));
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * parses csv file. only rows with run flag set to Y and test case id set are kept
+	 * rows are limited to visible column count
+	 *
+	 * @param file
+	 * @param separator
+	 * @return
+	 */
+	private static CsvFile parse(File file, char separator) {
+		long lastModified = file.lastModified();
+		long length = file.length();
+		String[] header = new String[0];
+		String testCaseSuite = StringUtils.EMPTY;
+		List<String[]> rows = new ArrayList<String[]>();
+
+		try (CSVReader reader = new CSVReaderBuilder(CsvReader.getFileReader(file))
+				.withCSVParser(new RFC4180ParserBuilder().withSeparator(separator).build()).build()) {
+
+			// read header separately
+			header = reader.readNext();
+			int runFlag = CsvReader.getColumnIndexByName("RunFlag", header);
+			int testCaseIDIndex = CsvReader.getColumnIndexByName("TestCaseID", header);
+			int testCaseSuiteIndex = CsvReader.getColumnIndexByName("TestSuite", header);
+
+			String[] line;
+			while ((line = reader.readNext()) != null) {
+				// limit array to size of values. eg. 15 column values
+				String[] newline = Arrays.copyOfRange(line, 0, CsvReader.SERVICE_CSV_VISIBLE_COLUMN_COUNT);
+				if (newline[runFlag].equals("Y") && !newline[testCaseIDIndex].isEmpty()) {
+					rows.add(newline);
+					if (testCaseSuite.isEmpty())
+						testCaseSuite = newline[testCaseSuiteIndex];
+				}
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return new CsvFile(header, testCaseSuite, rows, lastModified, length);
+	}
+
+	/**
+	 * parse pool, sized by api.csv.parse.threads. default: number of processors
+	 *
+	 * @return
+	 */
+	private static ForkJoinPool getPool() {
+		if (pool != null)
+			return pool;
+
+		synchronized (CsvFileIndex.class) {
+			if (pool == null) {
+				int threads = Config.getIntValue(CSV_PARSE_THREAD_COUNT);
+				pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+			}
+			return pool;
+		}
+	}
+}
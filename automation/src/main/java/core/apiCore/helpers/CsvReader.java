@@ -2,7 +2,9 @@ package core.apiCore.helpers;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -118,8 +120,10 @@ public class CsvReader {
 		int index = 0;
 		
 		// set csv list to include all tests at the beginning of test run
+		// test files are parsed in the background, in run order
 		if(TestDataProvider.TEST_CSV_LIST.isEmpty()) {
 			TestDataProvider.TEST_CSV_LIST = filterTests();
+			CsvFileIndex.preload(TestDataProvider.TEST_CSV_LIST, getCsvSeparator());
 		}
 		
 		if(TestDataProvider.TEST_CSV_LIST.isEmpty())
@@ -546,11 +550,11 @@ public class CsvReader {
 
 	/**
 	 * gets all keywords And stores them in apiMap in testObject
+	 * keyword files are parsed once per suite through the keyword index
 	 */
-	public synchronized static void getAllKeywords() {
-		String testFolderPath = Config.getValue(TestDataProvider.API_KEYWORD_PATH);
-		String csvTestPath = Helper.getFullPath(testFolderPath);
-		CsvReader.getAllTestCases(csvTestPath, ".csv");
+	public static void getAllKeywords() {
+		Map<String, ServiceObject> apiMap = KeywordIndex.getIndex().getApiMap();
+		TestObject.getTestInfo().apiMap.putAll(apiMap);
 	}
 
 	/**
@@ -599,14 +603,14 @@ public class CsvReader {
 	
 	/**
 	 * returns a list of all csv test files
+	 * directory is listed once, through the csv file index
 	 * 
 	 * @param csvTestPath: full path to csv directory
 	 * @return
 	 */
 	public static ArrayList<File> getCsvFileList(String csvTestPath) {
 		boolean includeSubDirectories = Config.getBooleanValue(SERVICE_CSV_INCLUDE_SUB_DIR);
-		ArrayList<File> csvFiles = Helper.getFileListByType(csvTestPath, ".csv", includeSubDirectories);
-		return csvFiles;
+		return CsvFileIndex.getIndex(csvTestPath, includeSubDirectories).getFiles();
 	}
 
 	/**
@@ -686,6 +690,7 @@ public class CsvReader {
 
 	/**
 	 * reads csv file and returns the list of rows 
+	 * file is parsed once through the csv file index, rows are copied for each call
 	 * include and exclude tests
 	 * eg. include: TestCases_UserValidation.csv:createUser-createUserNoToken, createUserInvalidToken;
 	 * eg. exclude: TestCases_UserValidation.csv:createUser-createUserNoToken, createUserInvalidToken;
@@ -694,45 +699,20 @@ public class CsvReader {
 	 * @return
 	 */
 	public static List<Object[]> getCsvTestList(File file) {
-		List<Object[]> csvList = new ArrayList<Object[]>();
-
-		try {
-			
-		    CSVReader reader = readCsvFile(file);
-		    
-			// read header separately
-			String[] header = reader.readNext();
-			ArrayList<String> headerList = new ArrayList<String>();
-			
-			int runFlag = getColumnIndexByName("RunFlag", header);
-			int testCaseIDIndex = getColumnIndexByName("TestCaseID", header);
-			int testCaseSuiteIndex =  getColumnIndexByName("TestSuite", header);
-			String testCaseSuite = StringUtils.EMPTY;
-
-			// only add tests that have runFlag set to Y And testCaseID are set
-			String[] line;
-			while ((line = reader.readNext()) != null) {
-				// limit array to size of values. eg. 15 column values
-				String[] newline = Arrays.copyOfRange(line, 0, SERVICE_CSV_VISIBLE_COLUMN_COUNT);
-				if (newline[runFlag].equals("Y") && !newline[testCaseIDIndex].isEmpty()) {
-					csvList.add(newline);
-					
-					// set testSuit name. need to set only 1 time
-					if(testCaseSuite.isEmpty()) {
-						testCaseSuite = newline[testCaseSuiteIndex];
-						headerList = new ArrayList<String>(Arrays.asList(header));
-						headerList.add(testCaseSuite);
-					}
-				}
-			}
-			// store header column names, using test suite as key
-			TestObject.getGlobalTestInfo().serviceObject.withHeaderMap(testCaseSuite,headerList);
-					
-						
-			reader.close();
-		} catch (Exception e) {
-			e.printStackTrace();
+		// only tests that have runFlag set to Y And testCaseID are set
+		CsvFileIndex.CsvFile csvFile = CsvFileIndex.getCsvFile(file, getCsvSeparator());
+		List<Object[]> csvList = csvFile.getRows();
+		
+		// set testSuit name as last header column
+		ArrayList<String> headerList = new ArrayList<String>();
+		String testCaseSuite = csvFile.testCaseSuite;
+		if(!testCaseSuite.isEmpty()) {
+			headerList = new ArrayList<String>(Arrays.asList(csvFile.header));
+			headerList.add(testCaseSuite);
 		}
+		
+		// store header column names, using test suite as key
+		TestObject.getGlobalTestInfo().serviceObject.withHeaderMap(testCaseSuite,headerList);
 
 		// filter based on include test cases
 		csvList = setIncludeTestRange(file, csvList);
@@ -851,11 +831,8 @@ public class CsvReader {
 		try {
 			// read csv file
 			char separator = getCsvSeparator();				
-			FileInputStream fis = new FileInputStream(file.getPath());
-	        InputStreamReader isr = new InputStreamReader(fis, 
-	                StandardCharsets.UTF_8);
 	        RFC4180Parser parser = new RFC4180ParserBuilder().withSeparator(separator).build();
-		    reader = new CSVReaderBuilder(isr).withCSVParser(parser)
+		    reader = new CSVReaderBuilder(getFileReader(file)).withCSVParser(parser)
 	                 .build();
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -864,6 +841,17 @@ public class CsvReader {
 		return reader;
 	}
 	
+	/**
+	 * returns utf-8 reader for file
+	 * @param file
+	 * @return
+	 * @throws FileNotFoundException
+	 */
+	public static Reader getFileReader(File file) throws FileNotFoundException {
+		FileInputStream fis = new FileInputStream(file.getPath());
+		return new InputStreamReader(fis, StandardCharsets.UTF_8);
+	}
+	
 	/**
 	 * sets the separator for the csv file
 	 * @return
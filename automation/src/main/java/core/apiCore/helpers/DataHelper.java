@@ -66,66 +66,13 @@ public class DataHelper {
 	}
 	/**
 	 * replaces placeholder values with values from config properties replaces only
-	 * string values
+	 * string values. see TemplateEngine for placeholder resolvers
 	 * 
 	 * @param source
 	 * @return
 	 */
 	public static String replaceParameters(String source, String tagPattern, String openingTag, String closingTag) {
-
-		if (source.isEmpty())
-			return source; 
-
-		List<String> parameters = Helper.getValuesFromPattern(source,tagPattern);
-		Object value = null;
-		int length = 0;
-		String newTime = StringUtils.EMPTY;
-		for (String parameter : parameters) {
-			if (parameter.contains("_TIME_MS_")) {
-				newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
-				Instant time = getTimeInstance(newTime);
-				value = getTimeSubstring(parameter, String.valueOf(time.toEpochMilli()));
-			}else if (parameter.contains("_TIME_S_")) {
-					newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
-					Instant time = getTimeInstance(newTime);
-					value = getTimeSubstring(parameter, String.valueOf(time.getEpochSecond()));
-			} else if (parameter.contains("_TIME_STRING_")) {
-				newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
-				value = getTimeSubstring(parameter, Helper.date.getTime(newTime, "yyyyMMddHHmmssSSS", null));
-			} else if (parameter.contains("_TIME_ISO_")) {
-				newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
-				value = getTimeSubstring(parameter, newTime);
-			} else if (parameter.contains("_TIME")) {
-				newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
-				value = getTimeSubstring(parameter, newTime);
-			} else if (parameter.contains("_RANDUUID")) {	
-				value = Helper.generateUUID();
-			} else if (parameter.contains("_UUID_STATIC")) {	
-				value = Config.getValue(TestObject.UUID_STATIC_STRING);
-			} else if (parameter.contains("_RAND")) {
-				length = Helper.getIntFromString(parameter);
-				value = Config.getValue(TestObject.RANDOM_STRING).substring(0, length);
-			} else if (parameter.contains("_INCREMENT_FROM_")) {
-				value = getIncrementalValue(parameter);
-			} else if (parameter.contains("_XML")) {
-				// syntax:e.g. <@_XML:ID:1> will be replaced by 2
-				String[] valueArray = parameter.split(":");
-				int index = 0;
-				String tag = valueArray[1];
-				if (valueArray.length == 3) // if has index value
-					index = Integer.valueOf(parameter.split(":")[2]);
-				value = XmlHelper.getXmlTagValue(source, tag, index + 1);
-			} else {
-				value = Config.getObjectValue(parameter.replace("@", ""));
-			}
-			if (isObjectEmpty(value))
-				TestLog.logWarning("parameter value not found: " + parameter);
-			else {
-					source = source.replace(openingTag + parameter + closingTag, Matcher.quoteReplacement(value.toString()));
-			}			
-		}
-
-		return source;
+		return TemplateEngine.render(source, tagPattern, openingTag, closingTag);
 	}
 	
 	public static boolean isObjectEmpty(Object value) {
@@ -1168,6 +1115,24 @@ public class DataHelper {
 	 * @return
 	 */
 	public static List<String> validateExpectedValues(List<String> responseValues, String expectedResponse) {
+		return validateExpectedValues(responseValues, null, expectedResponse);
+	}
+
+	/**
+	 * validates expected values against response document. json path keywords read the parsed document
+	 * 
+	 * @param response eg. ServiceObject.getResponseDocument
+	 * @param expectedResponse
+	 * @return
+	 */
+	public static List<String> validateExpectedValues(JsonDocument response, String expectedResponse) {
+		List<String> responseValues = new ArrayList<String>();
+		responseValues.add(response.getJson());
+		return validateExpectedValues(responseValues, response, expectedResponse);
+	}
+
+	private static List<String> validateExpectedValues(List<String> responseValues, JsonDocument document,
+			String expectedResponse) {
 		
 		List<String> errorMessages = new ArrayList<String>();
 		
@@ -1204,7 +1169,7 @@ public class DataHelper {
 			//convert xml string to json for validation
 			criterion = convertXmlResponseToJson(criterion);
 
-			List<String> errors = validateExpectedResponse(criterion, responseValues);
+			List<String> errors = validateExpectedResponse(criterion, responseValues, document);
 			
 			errors = removeEmptyElements(errors);
 			
@@ -1428,6 +1393,20 @@ public class DataHelper {
 	 * @return
 	 */
 	public static List<String> validateExpectedResponse(String criterion, List<String> responseString) {
+		return validateExpectedResponse(criterion, responseString, null);
+	}
+
+	/**
+	 * validates expected requirement against response strings
+	 * document is used for the response it was parsed from, other responses are parsed for validation
+	 * 
+	 * @param criterion
+	 * @param responseString
+	 * @param document
+	 * @return
+	 */
+	private static List<String> validateExpectedResponse(String criterion, List<String> responseString,
+			JsonDocument document) {
 		List<String> errorMessages = new ArrayList<String>();
 		for (int i = 0; i < responseString.size(); i++) {
 			errorMessages = new ArrayList<String>();
@@ -1444,7 +1423,9 @@ public class DataHelper {
 			}
 
 			errorMessages.add(JsonHelper.validateByJsonBody(criterion, responseString.get(i)));
-			errorMessages.addAll(JsonHelper.validateByKeywords(criterion, responseString.get(i)));
+			JsonDocument responseDocument = document != null && document.getJson() == responseString.get(i) ? document
+					: JsonDocument.of(responseString.get(i));
+			errorMessages.addAll(JsonHelper.validateByKeywords(criterion, responseDocument));
 			errorMessages.add(JsonHelper.validateResponseBody(criterion, responseString.get(i)));
 
 			// if no errors, then validation passed, no need to validate against other
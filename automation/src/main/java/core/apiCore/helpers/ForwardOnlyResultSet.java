@@ -0,0 +1,110 @@
+package core.apiCore.helpers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * row tracking for forward only result sets
+ * jdbc drivers are not required to support getRow and isBeforeFirst on forward only result sets, some throw
+ * SQLFeatureNotSupportedException. the wrapped result set counts rows as next is called, and detects an empty result
+ * by reading the first row ahead. the driver result set only receives next calls for cursor movement
+ * other calls are passed to the driver result set
+ */
+public class ForwardOnlyResultSet implements InvocationHandler {
+
+	private final ResultSet resSet;
+	private int row = 0; // current row, 0 if before first or after last
+	private boolean isRowAhead = false; // first row was read ahead by isBeforeFirst
+	private boolean isAfterLast = false;
+
+	private ForwardOnlyResultSet(ResultSet resSet) {
+		this.resSet = resSet;
+	}
+
+	/**
+	 * wraps forward only result set with row tracking. scrollable result sets are returned as is
+	 *
+	 * @param resSet
+	 * @return
+	 * @throws SQLException
+	 */
+	public static ResultSet wrap(ResultSet resSet) throws SQLException {
+		if (resSet == null || isWrapped(resSet) || resSet.getType() != ResultSet.TYPE_FORWARD_ONLY)
+			return resSet;
+
+		return (ResultSet) Proxy.newProxyInstance(ForwardOnlyResultSet.class.getClassLoader(),
+				new Class<?>[] { ResultSet.class }, new ForwardOnlyResultSet(resSet));
+	}
+
+	private static boolean isWrapped(ResultSet resSet) {
+		return Proxy.isProxyClass(resSet.getClass())
+				&& Proxy.getInvocationHandler(resSet) instanceof ForwardOnlyResultSet;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+		case "next":
+			return next();
+		case "getRow":
+			return isRowAhead ? 0 : row;
+		case "isBeforeFirst":
+			return isBeforeFirst();
+		case "isAfterLast":
+			return isAfterLast;
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		default:
+			try {
+				return method.invoke(resSet, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	private boolean next() throws SQLException {
+		if (isRowAhead) {
+			isRowAhead = false;
+			row = 1;
+			return true;
+		}
+		if (isAfterLast)
+			return false;
+
+		if (resSet.next()) {
+			row++;
+			return true;
+		}
+		row = 0;
+		isAfterLast = true;
+		return false;
+	}
+
+	/**
+	 * true if cursor is before the first row And result set has rows
+	 * reads the first row ahead, it is returned by the next call to next
+	 *
+	 * @return
+	 * @throws SQLException
+	 */
+	private boolean isBeforeFirst() throws SQLException {
+		if (isRowAhead)
+			return true;
+		if (row > 0 || isAfterLast)
+			return false;
+
+		if (resSet.next()) {
+			isRowAhead = true;
+			return true;
+		}
+		isAfterLast = true;
+		return false;
+	}
+}
@@ -0,0 +1,182 @@
+package core.apiCore.helpers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.ReadContext;
+
+import io.restassured.response.Response;
+
+/**
+ * parsed json document, shared by all json path reads on the same response
+ * json string is parsed once, read contexts for list and single value reads share the parsed document
+ * rest responses are read through the document of the service object. eg. ServiceObject.getResponseDocument
+ * recently used documents are kept per thread for helpers called with json strings, And are cleared at end of test
+ * compiled json paths are cached across tests
+ *
+ * documents are not thread safe, and are only used by the thread that created them
+ */
+public class JsonDocument {
+
+	private static final int RECENT_DOCUMENT_COUNT = 4;
+	private static final int MAX_COMPILED_PATHS = 5000;
+
+	private static final Configuration VALUE_CONFIG = Configuration.defaultConfiguration();
+	private static final Configuration LIST_CONFIG = Configuration.defaultConfiguration()
+			.addOptions(Option.ALWAYS_RETURN_LIST);
+
+	// key: json path
+	private static final Map<String, JsonPath> compiledPaths = new ConcurrentHashMap<String, JsonPath>();
+
+	// most recent document first
+	private static final ThreadLocal<Deque<JsonDocument>> recentDocuments = ThreadLocal
+			.withInitial(() -> new ArrayDeque<JsonDocument>());
+
+	private final String json;
+	private final Object source; // response the document was read from, if any
+	private Object parsed = null;
+	private ReadContext valueContext = null;
+	private ReadContext listContext = null;
+	private boolean isValid = false;
+	private Boolean hasEscapeChar = null;
+
+	private JsonDocument(String json, Object source) {
+		this.json = json;
+		this.source = source;
+	}
+
+	/**
+	 * gets document for json string, reuses recent document of current thread
+	 *
+	 * @param json
+	 * @return
+	 */
+	public static JsonDocument of(String json) {
+		Deque<JsonDocument> recent = recentDocuments.get();
+		for (JsonDocument document : recent) {
+			if (document.json == json) {
+				moveToFront(recent, document);
+				return document;
+			}
+		}
+		for (JsonDocument document : recent) {
+			if (document.json.equals(json)) {
+				moveToFront(recent, document);
+				return document;
+			}
+		}
+		return addRecent(recent, new JsonDocument(json, null));
+	}
+
+	/**
+	 * gets document for response body, reuses recent document of current thread
+	 * response body is only read once per response
+	 *
+	 * @param response
+	 * @return
+	 */
+	public static JsonDocument of(Response response) {
+		Deque<JsonDocument> recent = recentDocuments.get();
+		for (JsonDocument document : recent) {
+			if (document.source == response) {
+				moveToFront(recent, document);
+				return document;
+			}
+		}
+		return addRecent(recent, new JsonDocument(response.getBody().asString(), response));
+	}
+
+	/**
+	 * removes recent documents of current thread. eg. at end of test
+	 */
+	public static void clearRecent() {
+		recentDocuments.get().clear();
+	}
+
+	/**
+	 * gets compiled json path from cache, compiles path if not cached
+	 *
+	 * @param path
+	 * @return
+	 */
+	public static JsonPath compile(String path) {
+		JsonPath compiled = compiledPaths.get(path);
+		if (compiled != null)
+			return compiled;
+
+		compiled = JsonPath.compile(path);
+		if (compiledPaths.size() >= MAX_COMPILED_PATHS)
+			compiledPaths.clear();
+		compiledPaths.put(path, compiled);
+		return compiled;
+	}
+
+	/**
+	 * reads json path value. json is parsed on first read
+	 *
+	 * @param path               full json path. eg. $.data.id
+	 * @param isAlwaysReturnList
+	 * @return
+	 */
+	public <T> T read(String path, boolean isAlwaysReturnList) {
+		return getContext(isAlwaysReturnList).read(compile(path));
+	}
+
+	public String getJson() {
+		return json;
+	}
+
+	public boolean isValid() {
+		return isValid;
+	}
+
+	/**
+	 * marks json as validated, so validation is not repeated per read
+	 */
+	public void setValid() {
+		this.isValid = true;
+	}
+
+	public boolean containsEscapeChar() {
+		if (hasEscapeChar == null)
+			hasEscapeChar = JsonHelper.containsEscapeChar(json);
+		return hasEscapeChar;
+	}
+
+	private ReadContext getContext(boolean isAlwaysReturnList) {
+		if (parsed == null)
+			parsed = VALUE_CONFIG.jsonProvider().parse(json);
+
+		if (isAlwaysReturnList) {
+			if (listContext == null)
+				listContext = JsonPath.using(LIST_CONFIG).parse(parsed);
+			return listContext;
+		}
+		if (valueContext == null)
+			valueContext = JsonPath.using(VALUE_CONFIG).parse(parsed);
+		return valueContext;
+	}
+
+	private static void moveToFront(Deque<JsonDocument> recent, JsonDocument document) {
+		if (recent.peekFirst() == document)
+			return;
+		recent.remove(document);
+		recent.addFirst(document);
+	}
+
+	private static JsonDocument addRecent(Deque<JsonDocument> recent, JsonDocument document) {
+		recent.addFirst(document);
+		Iterator<JsonDocument> iterator = recent.descendingIterator();
+		while (recent.size() > RECENT_DOCUMENT_COUNT && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+		return document;
+	}
+}
@@ -23,10 +23,10 @@ import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.ReadContext;
 
 import core.helpers.Helper;
 import core.support.configReader.Config;
+import core.support.configReader.ConfigKey;
 import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
 import core.support.objects.ServiceObject;
@@ -35,6 +35,7 @@ import io.restassured.response.Response;
 public class JsonHelper {
 
 	public static String failOnEscapeChars = "service.validation.fail.on.escapechars";
+	private static final ConfigKey<Boolean> FAIL_ON_ESCAPE_CHARS_KEY = ConfigKey.booleanKey(failOnEscapeChars);
 
 	/**
 	 * replaces output parameter with response values eg. $token with id form values
@@ -45,6 +46,19 @@ public class JsonHelper {
 	 * @param outputParam
 	 */
 	public static void saveOutboundJsonParameters(Response response, String outputParam) {
+		if (response == null || outputParam.isEmpty())
+			return;
+		saveOutboundJsonParameters(response, JsonDocument.of(response), outputParam);
+	}
+
+	/**
+	 * replaces output parameter with values of the response document
+	 * 
+	 * @param response
+	 * @param document parsed response body. eg. ServiceObject.getResponseDocument
+	 * @param outputParam
+	 */
+	public static void saveOutboundJsonParameters(Response response, JsonDocument document, String outputParam) {
 		if (response == null || outputParam.isEmpty())
 			return;
 		
@@ -58,7 +72,7 @@ public class JsonHelper {
 				keyword.key = value;
 				configMapKeyValues(response, keyword);
 			}else
-				configMapJsonKeyValues(response, keyword);
+				configMapJsonKeyValues(response, document, keyword);
 		}
 		
 	}
@@ -70,8 +84,19 @@ public class JsonHelper {
 	 * @param keyValue
 	 */
 	public static void configMapJsonKeyValues(Response response, KeyValue keyword) {
+		configMapJsonKeyValues(response, JsonDocument.of(response), keyword);
+	}
+
+	/**
+	 * map key value of the response document to config
+	 * 
+	 * @param response
+	 * @param document
+	 * @param keyword
+	 */
+	public static void configMapJsonKeyValues(Response response, JsonDocument document, KeyValue keyword) {
 		
-		String value = getJsonValue(response, keyword.key);
+		String value = getJsonValue(document, keyword.key);
 		keyword.key = value;
 		configMapKeyValues(response, keyword);
 	}
@@ -112,9 +137,19 @@ public class JsonHelper {
 	 * @return
 	 */
 	public static String getJsonValue(Response response, String path) {
-		String jsonResponse = response.getBody().asString();
-		String value = getJsonValue(jsonResponse, path);
-		return value;
+		// response body is read and parsed once per response
+		return getJsonValue(JsonDocument.of(response), path);
+	}
+
+	/**
+	 * gets json value of parsed document as list if applicable, or string if single item
+	 * 
+	 * @param document
+	 * @param path
+	 * @return value string list separated by ","
+	 */
+	public static String getJsonValue(JsonDocument document, String path) {
+		return getJsonValue(document, path, true);
 	}
 
 	/**
@@ -140,7 +175,19 @@ public class JsonHelper {
 	 * @return value string list separated by ","
 	 */
 	public static String getJsonValue(String json, String path, boolean isAlwaysReturnList) {
-		Object values = getJsonPathValue(json, path, isAlwaysReturnList);
+		return getJsonValue(JsonDocument.of(json), path, isAlwaysReturnList);
+	}
+
+	/**
+	 * gets json value of parsed document as list if applicable, or string if single item
+	 * 
+	 * @param document
+	 * @param path
+	 * @param isAlwaysReturnList
+	 * @return value string list separated by ","
+	 */
+	public static String getJsonValue(JsonDocument document, String path, boolean isAlwaysReturnList) {
+		Object values = getJsonPathValue(document, path, isAlwaysReturnList, true);
 
 		if(values == null)
 			return null;
@@ -176,39 +223,50 @@ public class JsonHelper {
 	 * @return value string list separated by ","
 	 */
 	public static Object getJsonPathValue(String json, String path, boolean isAlwaysReturnList, boolean checkError) {
+		return getJsonPathValue(JsonDocument.of(json), path, isAlwaysReturnList, checkError);
+	}
+
+	/**
+	 * gets json path value of parsed document
+	 * 
+	 * @param document
+	 * @param path
+	 * @param isAlwaysReturnList
+	 * @param checkError
+	 * @return
+	 */
+	public static Object getJsonPathValue(JsonDocument document, String path, boolean isAlwaysReturnList, boolean checkError) {
 		String prefix = "$.";
 		Object values = null;
+		String json = document.getJson();
+
+		// json is parsed and validated once per document
+		if (!document.isValid()) {
+			isJSONValid(json, true);
+			document.setValid();
+		}
 
 		// validate escape characters in json
-		isJSONValid(json, true);
-		if (Config.getBooleanValue(failOnEscapeChars) && containsEscapeChar(json))
+		if (Config.getValue(FAIL_ON_ESCAPE_CHARS_KEY) && document.containsEscapeChar())
 			Helper.assertFalse("invalid escape character in json. invalid chars are: \\\", \\b, "
 					+ "\\n, \\r, \\f, \\', \\\\: " + json);
 
 		// in case user forgets to remove prefix
 		if (path.startsWith(prefix))
 			path = path.replace(prefix, "");
-
-		// set always return list. on json path method errors, need to be turned off.
-		// eg. length()
-		Configuration config = null;
-		if (isAlwaysReturnList)
-			config = Configuration.defaultConfiguration().addOptions(Option.ALWAYS_RETURN_LIST);
-		else
-			config = Configuration.defaultConfiguration();
-
-		ReadContext ctx = JsonPath.using(config).parse(json);
 		
 		if(path.equals("."))
 			return json;
 
+		// set always return list. on json path method errors, need to be turned off.
+		// eg. length()
 		try {
-			values = ctx.read(prefix + path);
+			values = document.read(prefix + path, isAlwaysReturnList);
 		} catch (Exception e) {
 			// in case always return list is not applicable to json and we need to turn it
 			// off and rerun
 			if (e.getMessage().contains(Option.ALWAYS_RETURN_LIST.name()) && isAlwaysReturnList)
-				values = getJsonValue(json, path, false);
+				values = getJsonValue(document, path, false);
 			else
 				if(checkError)
 					TestLog.logWarning("invalid path: '" + path + "' for json string: " + json
@@ -232,11 +290,8 @@ public class JsonHelper {
 		if (path.startsWith(prefix))
 			path = path.replace(prefix, "");
 
-		Configuration config = Configuration.defaultConfiguration().addOptions(Option.ALWAYS_RETURN_LIST);
-		ReadContext ctx = JsonPath.using(config).parse(json);
-
 		try {
-			jsonResponse = ctx.read(prefix + path);
+			jsonResponse = JsonDocument.of(json).read(prefix + path, true);
 		} catch (Exception e) {
 			e.getCause();
 		}
@@ -310,7 +365,7 @@ public class JsonHelper {
 	}
 
 	public static String getResponseValue(Response response) {
-		return response.getBody().asString();
+		return JsonDocument.of(response).getJson();
 	}
 
 	/**
@@ -326,6 +381,17 @@ public class JsonHelper {
 	 * @param response
 	 */
 	public static List<String> validateJsonKeywords(List<KeyValue> keywords, String responseString) {
+		return validateJsonKeywords(keywords, JsonDocument.of(responseString));
+	}
+
+	/**
+	 * validates json keywords against parsed response document
+	 * 
+	 * @param keywords
+	 * @param document
+	 * @return
+	 */
+	public static List<String> validateJsonKeywords(List<KeyValue> keywords, JsonDocument document) {
 		List<String> errorMessages = new ArrayList<String>();
 		for (KeyValue keyword : keywords) {
 			String jsonPath = Helper.removeSurroundingQuotes(keyword.key);
@@ -344,7 +410,7 @@ public class JsonHelper {
 
 			TestLog.ConsoleLog("command: <" + command + "> json path: <" + jsonPath + ">");
 			// get response string from json path (eg. data.user.id) would return "2"
-			String jsonPathResponse = getJsonValue(responseString, jsonPath);
+			String jsonPathResponse = getJsonValue(document, jsonPath);
 			
 			// if response is empty and isEmpty command is not used
 			// empty response for custom commands are handle by developer
@@ -453,8 +519,7 @@ public class JsonHelper {
 	 * @param response
 	 */
 	public static List<String> validateByKeywords(String expectedJson, Response response) {
-		String responseString = JsonHelper.getResponseValue(response);
-		return validateByKeywords(expectedJson, responseString);
+		return validateByKeywords(expectedJson, JsonDocument.of(response));
 	}
 
 	/**
@@ -464,6 +529,17 @@ public class JsonHelper {
 	 * @param response
 	 */
 	public static List<String> validateByKeywords(String expectedJson, String responseString) {
+		return validateByKeywords(expectedJson, JsonDocument.of(responseString));
+	}
+
+	/**
+	 * validates parsed response document against keywords
+	 * 
+	 * @param expectedJson
+	 * @param document
+	 * @return
+	 */
+	public static List<String> validateByKeywords(String expectedJson, JsonDocument document) {
 		List<String> errorMessages = new ArrayList<String>();
 
 		expectedJson = Helper.stringRemoveLines(expectedJson);
@@ -475,11 +551,11 @@ public class JsonHelper {
 				// get hashmap of json path And verification
 				List<KeyValue> keywords = DataHelper.getValidationMap(expectedJson);
 				// validate based on keywords
-				errorMessages = JsonHelper.validateJsonKeywords(keywords, responseString);
+				errorMessages = JsonHelper.validateJsonKeywords(keywords, document);
 
 				// response is not empty
 			} else if (expectedJson.startsWith("_NOT_EMPTY_")) {
-				if (responseString.isEmpty())
+				if (document.getJson().isEmpty())
 					errorMessages.add("response is empty");
 			}
 		}
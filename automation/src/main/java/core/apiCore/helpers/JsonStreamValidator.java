@@ -0,0 +1,470 @@
+package core.apiCore.helpers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import core.apiCore.helpers.DataHelper.JSON_COMMAND;
+import core.helpers.Helper;
+import core.support.logger.TestLog;
+import core.support.objects.KeyValue;
+
+/**
+ * validates json keywords against a response stream in a single pass, without reading the response into memory
+ * used for large responses. eg. export endpoints returning large json arrays
+ *
+ * supported paths: field names, [*] and [n]. eg. data.items[*].id, data.items[0].name
+ * supported commands: nodeSize*, count*, contains, hasItems, notContain, allValuesEqualTo, isNotEmpty
+ *
+ * matched arrays of values are treated as their values, same as json path validation
+ * node size is the element count of a single matched array, else the number of matched values
+ */
+public class JsonStreamValidator {
+
+	private static final Set<JSON_COMMAND> SUPPORTED_COMMANDS = Collections.unmodifiableSet(new LinkedHashSet<JSON_COMMAND>(
+			Arrays.asList(JSON_COMMAND.nodeSizeGreaterThan, JSON_COMMAND.nodeSizeLessThan, JSON_COMMAND.nodeSizeExact,
+					JSON_COMMAND.countGreaterThan, JSON_COMMAND.countLessThan, JSON_COMMAND.countExact,
+					JSON_COMMAND.contains, JSON_COMMAND.contain, JSON_COMMAND.hasItems, JSON_COMMAND.notContain,
+					JSON_COMMAND.notContains, JSON_COMMAND.notHaveItems, JSON_COMMAND.allValuesEqualTo,
+					JSON_COMMAND.isNotEmpty)));
+
+	private static final int ANY_INDEX = -1;
+
+	/**
+	 * returns true if all keywords of expected response can be validated against a stream
+	 * expected response must be a single json part section, without || or && logic
+	 *
+	 * @param expectedResponse eg. _VERIFY_JSON_PART_ data.items:nodeSizeGreaterThan(1000)
+	 * @return
+	 */
+	public static boolean isStreamable(String expectedResponse) {
+		String expected = Helper.removeSurroundingQuotes(Helper.stringRemoveLines(expectedResponse.trim()));
+		if (!expected.startsWith(DataHelper.VERIFY_JSON_PART_INDICATOR)
+				&& !expected.startsWith(DataHelper.VERIFY_JSON_PART_INDICATOR_UNDERSCORE))
+			return false;
+		if (expected.contains(DataHelper.VALIDATION_OR_CONDITION) || expected.contains(DataHelper.VALIDATION_AND_CONDITION))
+			return false;
+
+		List<KeyValue> keywords = DataHelper.getValidationMap(expected);
+		if (keywords.isEmpty())
+			return false;
+		for (KeyValue keyword : keywords) {
+			if (toAssertion(keyword) == null)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * validates expected json keywords against json stream. stream is read once and closed
+	 *
+	 * @param stream
+	 * @param expectedResponse eg. _VERIFY_JSON_PART_ data.items[*].status:allValuesEqualTo(active)
+	 * @return error messages
+	 */
+	public static List<String> validate(InputStream stream, String expectedResponse) {
+		List<String> errorMessages = new ArrayList<String>();
+
+		String expected = Helper.removeSurroundingQuotes(Helper.stringRemoveLines(expectedResponse.trim()));
+		List<Assertion> assertions = new ArrayList<Assertion>();
+		for (KeyValue keyword : DataHelper.getValidationMap(expected)) {
+			Assertion assertion = toAssertion(keyword);
+			if (assertion == null)
+				Helper.assertFalse("keyword not supported for streaming validation: " + keyword.key + ":" + keyword.value
+						+ ". supported commands: " + SUPPORTED_COMMANDS);
+			assertions.add(assertion);
+		}
+
+		List<PathCursor> cursors = new ArrayList<PathCursor>();
+		for (Assertion assertion : assertions)
+			cursors.add(new PathCursor(assertion, 0));
+
+		try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			walk(reader, cursors, Collections.<Assertion>emptyList());
+		} catch (IOException | IllegalStateException e) {
+			errorMessages.add("invalid json response stream: " + e.getMessage());
+			return errorMessages;
+		}
+
+		for (Assertion assertion : assertions)
+			errorMessages.add(assertion.evaluate());
+
+		errorMessages.removeAll(Collections.singleton(StringUtils.EMPTY));
+		return errorMessages;
+	}
+
+	/**
+	 * walks current json node
+	 *
+	 * @param reader
+	 * @param cursors    paths positioned at current node
+	 * @param collectors assertions matching the parent array. each element is a value of the assertion
+	 * @throws IOException
+	 */
+	private static void walk(JsonReader reader, List<PathCursor> cursors, List<Assertion> collectors)
+			throws IOException {
+		if (cursors.isEmpty() && collectors.isEmpty()) {
+			reader.skipValue();
+			return;
+		}
+
+		List<Assertion> matched = new ArrayList<Assertion>();
+		List<PathCursor> pending = new ArrayList<PathCursor>();
+		for (PathCursor cursor : cursors) {
+			if (cursor.isComplete())
+				matched.add(cursor.assertion);
+			else
+				pending.add(cursor);
+		}
+
+		JsonToken token = reader.peek();
+		switch (token) {
+		case BEGIN_ARRAY:
+			for (Assertion assertion : collectors)
+				assertion.onElementContainer();
+			for (Assertion assertion : matched)
+				assertion.onMatchArray();
+			if (pending.isEmpty() && matched.isEmpty()) {
+				reader.skipValue();
+				break;
+			}
+
+			reader.beginArray();
+			int index = 0;
+			while (reader.hasNext()) {
+				List<PathCursor> next = new ArrayList<PathCursor>();
+				for (PathCursor cursor : pending) {
+					if (cursor.isIndex(index))
+						next.add(cursor.advance());
+				}
+				walk(reader, next, matched);
+				index++;
+			}
+			reader.endArray();
+			break;
+		case BEGIN_OBJECT:
+			for (Assertion assertion : collectors)
+				assertion.onElementContainer();
+			for (Assertion assertion : matched)
+				assertion.onMatchObject();
+			if (pending.isEmpty()) {
+				reader.skipValue();
+				break;
+			}
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				List<PathCursor> next = new ArrayList<PathCursor>();
+				for (PathCursor cursor : pending) {
+					if (cursor.isField(name))
+						next.add(cursor.advance());
+				}
+				walk(reader, next, Collections.<Assertion>emptyList());
+			}
+			reader.endObject();
+			break;
+		default:
+			String value = readScalar(reader, token);
+			for (Assertion assertion : collectors)
+				assertion.onElementValue(value);
+			for (Assertion assertion : matched)
+				assertion.onMatchValue(value);
+			break;
+		}
+	}
+
+	private static String readScalar(JsonReader reader, JsonToken token) throws IOException {
+		switch (token) {
+		case BOOLEAN:
+			return String.valueOf(reader.nextBoolean());
+		case NULL:
+			reader.nextNull();
+			return "null";
+		default:
+			// numbers are kept as written
+			return reader.nextString();
+		}
+	}
+
+	/**
+	 * maps keyword to assertion, null if keyword is not supported
+	 */
+	private static Assertion toAssertion(KeyValue keyword) {
+		if (!keyword.position.isEmpty())
+			return null;
+
+		Object[] steps = parsePath(Helper.removeSurroundingQuotes(keyword.key));
+		if (steps == null)
+			return null;
+
+		String value = Helper.stringRemoveLines(keyword.value.toString());
+		String command = value;
+		String expectedValue = StringUtils.EMPTY;
+		String[] expected = value.split("[\\(\\)]");
+		if (expected.length > 1) {
+			command = expected[0];
+			expectedValue = expected[1];
+		}
+		command = Helper.removeSurroundingQuotes(command.trim());
+
+		JSON_COMMAND jsonCommand;
+		try {
+			jsonCommand = JSON_COMMAND.valueOf(command);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (!SUPPORTED_COMMANDS.contains(jsonCommand))
+			return null;
+
+		expectedValue = Helper.removeSurroundingQuotes(expectedValue);
+		if (isSizeCommand(jsonCommand) && !StringUtils.isNumeric(expectedValue.trim()))
+			return null;
+
+		return new Assertion(keyword.key, steps, jsonCommand, expectedValue);
+	}
+
+	/**
+	 * parses json path into steps. field name as string, index as integer
+	 * returns null if path uses unsupported syntax. eg. filters, deep scan, functions
+	 *
+	 * @param path eg. data.items[*].id
+	 * @return
+	 */
+	static Object[] parsePath(String path) {
+		if (path.startsWith("$."))
+			path = path.substring(2);
+		if (path.isEmpty() || path.equals(".") || path.contains("..") || path.matches(".*[?@()',:\"\\s].*"))
+			return null;
+
+		List<Object> steps = new ArrayList<Object>();
+		for (String part : path.split("\\.")) {
+			if (part.isEmpty())
+				return null;
+
+			int bracket = part.indexOf('[');
+			String name = bracket == -1 ? part : part.substring(0, bracket);
+			if (!name.isEmpty())
+				steps.add(name);
+
+			while (bracket != -1) {
+				int close = part.indexOf(']', bracket);
+				if (close == -1)
+					return null;
+				String index = part.substring(bracket + 1, close);
+				if (index.equals("*"))
+					steps.add(ANY_INDEX);
+				else if (StringUtils.isNumeric(index) && !index.isEmpty())
+					steps.add(Integer.valueOf(index));
+				else
+					return null;
+
+				if (close + 1 < part.length() && part.charAt(close + 1) != '[')
+					return null;
+				bracket = close + 1 < part.length() ? close + 1 : -1;
+			}
+		}
+		return steps.toArray();
+	}
+
+	private static boolean isSizeCommand(JSON_COMMAND command) {
+		switch (command) {
+		case nodeSizeGreaterThan:
+		case nodeSizeLessThan:
+		case nodeSizeExact:
+		case countGreaterThan:
+		case countLessThan:
+		case countExact:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * path position of assertion within the document
+	 */
+	private static class PathCursor {
+		final Assertion assertion;
+		final int step;
+
+		PathCursor(Assertion assertion, int step) {
+			this.assertion = assertion;
+			this.step = step;
+		}
+
+		boolean isComplete() {
+			return step == assertion.steps.length;
+		}
+
+		boolean isField(String name) {
+			return assertion.steps[step].equals(name);
+		}
+
+		boolean isIndex(int index) {
+			Object current = assertion.steps[step];
+			return current instanceof Integer && ((Integer) current == ANY_INDEX || (Integer) current == index);
+		}
+
+		PathCursor advance() {
+			return new PathCursor(assertion, step + 1);
+		}
+	}
+
+	/**
+	 * keyword assertion, evaluated incrementally as values are matched
+	 */
+	private static class Assertion {
+		final String path;
+		final Object[] steps;
+		final JSON_COMMAND command;
+		final String expectedString;
+		final List<String> expectedValues;
+		final Set<String> found = new LinkedHashSet<String>();
+
+		int matchCount = 0;
+		int arrayMatchCount = 0;
+		int elementCount = 0;
+		int valueCount = 0;
+		boolean hasNonScalar = false;
+		boolean hasNonEmptyValue = false;
+		String firstDifferent = null;
+
+		Assertion(String path, Object[] steps, JSON_COMMAND command, String expectedString) {
+			this.path = path;
+			this.steps = steps;
+			this.command = command;
+			this.expectedString = expectedString;
+			this.expectedValues = DataHelper.removeEmptyElements(DataHelper.getResponseArray(expectedString));
+		}
+
+		void onMatchArray() {
+			matchCount++;
+			arrayMatchCount++;
+		}
+
+		void onMatchObject() {
+			matchCount++;
+			hasNonScalar = true;
+		}
+
+		void onMatchValue(String value) {
+			matchCount++;
+			acceptValue(value);
+		}
+
+		void onElementContainer() {
+			elementCount++;
+			hasNonScalar = true;
+		}
+
+		void onElementValue(String value) {
+			elementCount++;
+			acceptValue(value);
+		}
+
+		private void acceptValue(String value) {
+			valueCount++;
+			if (!value.isEmpty() && !value.equals("null"))
+				hasNonEmptyValue = true;
+			if (firstDifferent == null && !value.equals(expectedString))
+				firstDifferent = value;
+			for (String expected : expectedValues) {
+				if (value.contains(expected))
+					found.add(expected);
+			}
+		}
+
+		/**
+		 * element count of a single matched array, else number of matches
+		 */
+		int getSize() {
+			if (matchCount == 1 && arrayMatchCount == 1)
+				return elementCount;
+			return matchCount;
+		}
+
+		String evaluate() {
+			TestLog.ConsoleLog("command: <" + command + "> json path: <" + path + ">");
+			if (matchCount == 0)
+				return "response returned, however, no jsonpath response returned for path: " + path;
+
+			switch (command) {
+			case countGreaterThan:
+			case nodeSizeGreaterThan:
+				int intValue = Integer.valueOf(expectedString.trim());
+				TestLog.logPass("verifying node with size " + getSize() + " greater than " + intValue);
+				if (!(getSize() > intValue))
+					return "response node size is: " + getSize() + " expected it to be greater than: " + intValue;
+				break;
+			case countLessThan:
+			case nodeSizeLessThan:
+				intValue = Integer.valueOf(expectedString.trim());
+				TestLog.logPass("verifying node with size " + getSize() + " less than " + intValue);
+				if (!(getSize() < intValue))
+					return "response node size is: " + getSize() + " expected it to be less than: " + intValue;
+				break;
+			case countExact:
+			case nodeSizeExact:
+				intValue = Integer.valueOf(expectedString.trim());
+				TestLog.logPass("verifying node with size " + getSize() + " equals " + intValue);
+				if (getSize() != intValue)
+					return "response node size is: " + getSize() + " expected: " + intValue;
+				break;
+			case hasItems:
+			case contains:
+			case contain:
+				TestLog.logPass("verifying: " + valueCount + " values at path: " + path + " contain " + expectedValues);
+				if (hasNonScalar)
+					return getNonScalarError();
+				Set<String> missing = new LinkedHashSet<String>(expectedValues);
+				missing.removeAll(found);
+				if (!missing.isEmpty())
+					return "values at path: " + path + " do not contain " + missing.toString();
+				break;
+			case notHaveItems:
+			case notContains:
+			case notContain:
+				TestLog.logPass("verifying: " + valueCount + " values at path: " + path + " do not contain " + expectedValues);
+				if (hasNonScalar)
+					return getNonScalarError();
+				if (!found.isEmpty())
+					return "values at path: " + path + " do contain " + found.toString();
+				break;
+			case allValuesEqualTo:
+				TestLog.logPass("verifying: " + valueCount + " values at path: " + path + " are all equal to " + expectedString);
+				if (hasNonScalar)
+					return getNonScalarError();
+				if (valueCount == 0 || firstDifferent != null)
+					return "values at path: " + path + " are not all equal to: " + expectedString + ". found: "
+							+ firstDifferent;
+				break;
+			case isNotEmpty:
+				TestLog.logPass("verifying response for path is not empty");
+				if (!hasNonEmptyValue && !hasNonScalar)
+					return "value is empty";
+				break;
+			default:
+				break;
+			}
+			return StringUtils.EMPTY;
+		}
+
+		private String getNonScalarError() {
+			return "streaming validation of " + command + " requires values at path: " + path
+					+ ", found json objects or nested arrays";
+		}
+	}
+}
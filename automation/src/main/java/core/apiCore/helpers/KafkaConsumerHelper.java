@@ -0,0 +1,149 @@
+package core.apiCore.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+
+import core.support.logger.TestLog;
+import core.support.objects.MessageObject;
+import core.support.objects.MessageObject.messageType;
+
+/**
+ * long lived background kafka consumers, one per server, group and topic
+ * each consumer polls continuously and adds received records to the outbound message store
+ * tests wait on the message store instead of creating a new consumer per poll
+ */
+public class KafkaConsumerHelper {
+
+	private static final long POLL_INTERVAL_MILLIS = 500;
+
+	// key: server, group id, topic
+	private static final Map<String, ConsumerThread> consumers = new ConcurrentHashMap<String, ConsumerThread>();
+
+	// creates the consumer from properties. can be replaced with an in process stand-in. eg. kafka MockConsumer
+	public static Function<Properties, Consumer<String, String>> consumerFactory = properties -> new KafkaConsumer<String, String>(
+			properties);
+
+	/**
+	 * background thread owning a single kafka consumer
+	 * kafka consumer is not thread safe, hence only accessed from this thread
+	 */
+	static class ConsumerThread extends Thread {
+		private final Consumer<String, String> consumer;
+		private final String topic;
+		private volatile boolean isRunning = true;
+
+		ConsumerThread(Consumer<String, String> consumer, String topic) {
+			this.consumer = consumer;
+			this.topic = topic;
+			setName("kafka-consumer-" + topic);
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				consumer.subscribe(Collections.singletonList(topic));
+				while (isRunning) {
+					ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(POLL_INTERVAL_MILLIS));
+					if (records.isEmpty())
+						continue;
+
+					for (ConsumerRecord<String, String> record : records)
+						MessageObject.outboundMessages.add(toMessageObject(record));
+					consumer.commitAsync();
+				}
+			} catch (WakeupException e) {
+				// expected on shutdown
+			} catch (Exception e) {
+				TestLog.ConsoleLogError("kafka consumer for topic: " + topic + " stopped: " + e.getMessage());
+			} finally {
+				consumers.values().remove(this);
+				consumer.close();
+			}
+		}
+
+		void shutdown() {
+			isRunning = false;
+			consumer.wakeup();
+		}
+	}
+
+	/**
+	 * starts background consumer for topic if not already running
+	 *
+	 * @param properties consumer properties, including bootstrap.servers and group.id
+	 * @param topic
+	 */
+	public static void startConsumer(Properties properties, String topic) {
+		String key = properties.get("bootstrap.servers") + "|" + properties.get("group.id") + "|" + topic;
+		consumers.computeIfAbsent(key, k -> {
+			ConsumerThread thread = new ConsumerThread(consumerFactory.apply(properties), topic);
+			thread.start();
+			return thread;
+		});
+	}
+
+	/**
+	 * returns true if a consumer is running for the topic
+	 *
+	 * @param topic
+	 * @return
+	 */
+	public static boolean isConsumerRunning(String topic) {
+		for (ConsumerThread thread : consumers.values()) {
+			if (thread.topic.equals(topic) && thread.isAlive())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * stops all background consumers. called at suite end
+	 */
+	public static void stopAllConsumers() {
+		for (ConsumerThread thread : consumers.values()) {
+			thread.shutdown();
+		}
+		for (ConsumerThread thread : consumers.values()) {
+			try {
+				thread.join(POLL_INTERVAL_MILLIS * 4);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		consumers.clear();
+	}
+
+	/**
+	 * maps kafka record to message object
+	 *
+	 * @param record
+	 * @return
+	 */
+	public static MessageObject toMessageObject(ConsumerRecord<String, String> record) {
+		List<String> headers = new ArrayList<String>();
+		for (Header header : record.headers()) {
+			headers.add(new String(header.value(), StandardCharsets.UTF_8));
+		}
+
+		MessageObject message = new MessageObject().withMessageType(messageType.KAFKA).withMessageId(record.key())
+				.withMessage(record.value()).withTopic(record.topic()).withHeader(headers);
+		TestLog.ConsoleLogDebug("Received messageId '" + message.getMessageId() + "\n with message content: "
+				+ message.getMessage());
+		return message;
+	}
+}
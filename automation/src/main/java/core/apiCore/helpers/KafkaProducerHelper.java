@@ -0,0 +1,137 @@
+package core.apiCore.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import core.support.logger.TestLog;
+
+/**
+ * shared kafka producers, one per server and serializer config
+ * kafka producer is thread safe, hence reused across tests and threads
+ * in async mode, send acknowledgments are collected per test thread and awaited after response messages are validated
+ */
+public class KafkaProducerHelper {
+
+	private static final long ACK_TIMEOUT_SECONDS = 60;
+
+	// key: producer properties
+	private static final Map<String, Producer<String, String>> producers = new ConcurrentHashMap<String, Producer<String, String>>();
+
+	// pending acknowledgments for messages sent in async mode on current thread
+	private static final ThreadLocal<List<Future<RecordMetadata>>> pendingAcks = ThreadLocal
+			.withInitial(() -> new ArrayList<Future<RecordMetadata>>());
+
+	// creates the producer from properties. can be replaced with an in process stand-in. eg. kafka MockProducer
+	public static Function<Properties, Producer<String, String>> producerFactory = properties -> new KafkaProducer<String, String>(
+			properties);
+
+	/**
+	 * gets shared producer for properties, creates one if not available
+	 *
+	 * @param properties
+	 * @return
+	 */
+	public static Producer<String, String> getProducer(Properties properties) {
+		String key = getProducerKey(properties);
+		return producers.computeIfAbsent(key, k -> producerFactory.apply(properties));
+	}
+
+	/**
+	 * sends record using shared producer if async, acknowledgment is stored and
+	 * awaited after validation. see awaitPendingAcks
+	 *
+	 * @param properties
+	 * @param record
+	 * @param isAsync
+	 * @throws Exception
+	 */
+	public static void send(Properties properties, ProducerRecord<String, String> record, boolean isAsync)
+			throws Exception {
+		Future<RecordMetadata> ack = getProducer(properties).send(record);
+
+		if (isAsync)
+			pendingAcks.get().add(ack);
+		else
+			ack.get(ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * waits for acknowledgment of messages sent in async mode on current thread
+	 * logs failed sends. pending acknowledgments are cleared, even if waiting is interrupted
+	 *
+	 * @return producer errors of failed sends, empty if all sends were acknowledged
+	 */
+	public static List<String> awaitPendingAcks() {
+		List<Future<RecordMetadata>> acks = pendingAcks.get();
+		List<String> errors = new ArrayList<String>();
+
+		try {
+			for (Future<RecordMetadata> ack : acks) {
+				try {
+					ack.get(ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				} catch (ExecutionException e) {
+					errors.add(e.getCause() == null ? e.getMessage() : e.getCause().toString());
+				} catch (Exception e) {
+					errors.add(e.toString());
+				}
+			}
+		} finally {
+			pendingAcks.remove();
+		}
+
+		for (String error : errors)
+			TestLog.ConsoleLogError("kafka message was not acknowledged: " + error);
+		return errors;
+	}
+
+	/**
+	 * removes pending acknowledgments of current thread. eg. left by a test that failed between send and await
+	 */
+	public static void clearPendingAcks() {
+		pendingAcks.remove();
+	}
+
+	/**
+	 * flushes and closes all producers. called at suite end
+	 */
+	public static void closeAllProducers() {
+		for (Producer<String, String> producer : producers.values()) {
+			try {
+				producer.flush();
+				producer.close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		producers.clear();
+	}
+
+	/**
+	 * producer key based on sorted properties. eg. servers, serializers, linger.ms,
+	 * batch.size
+	 *
+	 * @param properties
+	 * @return
+	 */
+	private static String getProducerKey(Properties properties) {
+		StringBuilder key = new StringBuilder();
+		properties.stringPropertyNames().stream().sorted()
+				.forEach(name -> key.append(name).append("=").append(properties.getProperty(name)).append(";"));
+
+		// serializers are set as class objects, not strings
+		key.append(properties.get("key.serializer")).append(";").append(properties.get("value.serializer"));
+		return key.toString();
+	}
+}
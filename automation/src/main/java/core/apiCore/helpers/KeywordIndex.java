@@ -0,0 +1,144 @@
+package core.apiCore.helpers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import core.apiCore.TestDataProvider;
+import core.helpers.Helper;
+import core.support.configReader.Config;
+import core.support.objects.ServiceObject;
+
+/**
+ * suite scoped index of api keywords
+ * keyword csv files are parsed once and shared by all test objects
+ * index is rebuilt when a keyword file is added, removed or changed (modified time or size)
+ * file stamps are checked at most once per refresh interval, so test initialization does not read the files
+ */
+public class KeywordIndex {
+
+	public static final String KEYWORD_INDEX_REFRESH_SECONDS = "api.keyword.index.refresh.seconds";
+	private static final int DEFAULT_REFRESH_SECONDS = 10;
+
+	private static volatile KeywordIndex index = null;
+
+	private final String keywordPath;
+	private final Map<String, String> fileStamps; // key: file path, value: modified time and size
+	private final List<Object[]> keywordRows;
+	private volatile long lastCheckMillis;
+
+	private KeywordIndex(String keywordPath, Map<String, String> fileStamps, List<Object[]> keywordRows) {
+		this.keywordPath = keywordPath;
+		this.fileStamps = Collections.unmodifiableMap(fileStamps);
+		this.keywordRows = Collections.unmodifiableList(keywordRows);
+		this.lastCheckMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * gets the keyword index for the keyword path in config
+	 * builds the index on first call, or if keyword files have changed
+	 *
+	 * @return
+	 */
+	public static KeywordIndex getIndex() {
+		String keywordPath = Helper.getFullPath(Config.getValue(TestDataProvider.API_KEYWORD_PATH));
+
+		KeywordIndex current = index;
+		if (current != null && current.isCurrent(keywordPath))
+			return current;
+
+		synchronized (KeywordIndex.class) {
+			current = index;
+			if (current == null || !current.isCurrent(keywordPath)) {
+				current = build(keywordPath);
+				index = current;
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * clears the index. next call to getIndex will re-read the keyword files
+	 */
+	public static void invalidate() {
+		index = null;
+	}
+
+	/**
+	 * returns a new map of service objects, one per keyword
+	 * service objects are mutated during test run, hence a new copy per test
+	 *
+	 * @return
+	 */
+	public Map<String, ServiceObject> getApiMap() {
+		Map<String, ServiceObject> apiMap = new ConcurrentHashMap<String, ServiceObject>();
+		for (Object[] row : keywordRows) {
+			ServiceObject serviceObject = CsvReader.mapToServiceObject(row);
+			apiMap.put(serviceObject.getTestCaseID(), serviceObject);
+		}
+		return apiMap;
+	}
+
+	public int getKeywordCount() {
+		return keywordRows.size();
+	}
+
+	/**
+	 * parses all keyword csv files at keyword path
+	 *
+	 * @param keywordPath
+	 * @return
+	 */
+	private static KeywordIndex build(String keywordPath) {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		Map<String, String> stamps = new HashMap<String, String>();
+
+		ArrayList<File> csvFiles = Helper.getFileListByType(keywordPath, ".csv");
+		for (File file : csvFiles) {
+			stamps.put(file.getAbsolutePath(), getFileStamp(file));
+			rows.addAll(CsvReader.getCsvTestList(file));
+		}
+		return new KeywordIndex(keywordPath, stamps, rows);
+	}
+
+	/**
+	 * returns true if the index matches the keyword path and files
+	 * files are only checked once the refresh interval has passed
+	 *
+	 * @param path
+	 * @return
+	 */
+	private boolean isCurrent(String path) {
+		if (!keywordPath.equals(path))
+			return false;
+
+		long now = System.currentTimeMillis();
+		if (now - lastCheckMillis < getRefreshMillis())
+			return true;
+
+		Map<String, String> stamps = new HashMap<String, String>();
+		for (File file : Helper.getFileListByType(keywordPath, ".csv"))
+			stamps.put(file.getAbsolutePath(), getFileStamp(file));
+
+		if (!stamps.equals(fileStamps))
+			return false;
+
+		lastCheckMillis = now;
+		return true;
+	}
+
+	private static long getRefreshMillis() {
+		int seconds = Config.getIntValue(KEYWORD_INDEX_REFRESH_SECONDS);
+		if (seconds < 0)
+			seconds = DEFAULT_REFRESH_SECONDS;
+		return seconds * 1000L;
+	}
+
+	private static String getFileStamp(File file) {
+		return file.lastModified() + ":" + file.length();
+	}
+}
@@ -4,9 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
@@ -24,12 +23,16 @@ import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
 import core.support.objects.MessageObject;
 import core.support.objects.MessageObject.messageType;
+import core.support.objects.MessageStore;
 import core.support.objects.ServiceObject;
 
 public class MessageQueueHelper {
 
 	public static final String RESPONSE_IDENTIFIER = "response.identifier";
 
+	// message store position when a message was sent. key: message id
+	private static final Map<String, Long> sentPositions = new ConcurrentHashMap<String, Long>();
+
 	
 	/**
 	 * 1) gets messages, adds them to the outboundMessages 2) filters based on the
@@ -40,6 +43,10 @@ public class MessageQueueHelper {
 	 */
 	public static void receiveAndValidateMessages(ServiceObject serviceObject, String messageId, messageType messageType) throws Exception {
 
+		// if message was sent in this test, messages received before it was sent are not scanned
+		Long sentPosition = messageId.isEmpty() ? null : sentPositions.remove(messageId);
+		long startPosition = sentPosition == null ? 0 : sentPosition;
+
 		// evaluate options
 		evaluateOption(serviceObject);
 		
@@ -56,6 +63,12 @@ public class MessageQueueHelper {
 		long passedTimeInSeconds = 0;
 		long lastLogged = 0;
 		int interval = 10; // log every 10 seconds
+		
+		// keep track of scanned messages between attempts
+		MessageStore.Cursor messageIdCursor = new MessageStore.Cursor(startPosition);
+		MessageStore.Cursor identifierCursor = new MessageStore.Cursor(startPosition);
+		MessageStore.Cursor waitCursor = new MessageStore.Cursor(startPosition);
+		BackoffPoller poller = BackoffPoller.forPolling().withTimeout(maxRetrySeconds * 1000L);
 
 		do {
 			lastLogged = MessageQueueHelper.logPerInterval(interval, watch, lastLogged, filteredMessages.size());
@@ -64,7 +77,7 @@ public class MessageQueueHelper {
 			getOutboundMessages(messageType);
 
 			// filters based on message id
-			filteredMessages.addAll(MessageQueueHelper.filterOutboundMessage(messageId));
+			filteredMessages.addAll(MessageQueueHelper.filterOutboundMessage(messageId, messageIdCursor, identifierCursor));
 
 			// validate message count
 			errorMessages = validateExpectedMessageCount(serviceObject.getExpectedResponse(),
@@ -80,6 +93,10 @@ public class MessageQueueHelper {
 					break;
 			}
 
+			// wait with backoff for new messages. returns early when a message arrives
+			if (!errorMessages.isEmpty())
+				MessageObject.outboundMessages.awaitMessages(waitCursor, poller.nextDelayMillis());
+
 			passedTimeInSeconds = watch.time(TimeUnit.SECONDS);
 
 		} while (!errorMessages.isEmpty() && passedTimeInSeconds < maxRetrySeconds);
@@ -139,8 +156,11 @@ public class MessageQueueHelper {
 		String messageId = StringUtils.EMPTY;
 
 		// get unique identifier for request body to match outbound message
-		if (!serviceObject.getRequestBody().isEmpty())
+		// store position is kept, responses to the message arrive after it
+		if (!serviceObject.getRequestBody().isEmpty()) {
 			messageId = messageIdPrefix + "-" + UUID.randomUUID().toString();
+			sentPositions.put(messageId, MessageObject.outboundMessages.getTail());
+		}
 
 		return messageId;
 	}
@@ -159,7 +179,6 @@ public class MessageQueueHelper {
 			TestLog.logPass("waiting: " + watch.time(TimeUnit.SECONDS) + " seconds");
 			TestLog.logPass("received: " + receivedMessageCount + " relevant message(s)");
 
-			Helper.waitForSeconds(1);
 			lastLogged = passedTimeInSeconds;
 		}
 		return lastLogged;
@@ -260,6 +279,16 @@ public class MessageQueueHelper {
 	 * @return
 	 */
 	public static CopyOnWriteArrayList<MessageObject> findMessagesBasedOnResponseIdentifier() {
+		return findMessagesBasedOnResponseIdentifier(new MessageStore.Cursor());
+	}
+
+	/**
+	 * find message based on unique identifier passed in through options
+	 * only messages received after the cursor are scanned
+	 * @param cursor
+	 * @return
+	 */
+	public static CopyOnWriteArrayList<MessageObject> findMessagesBasedOnResponseIdentifier(MessageStore.Cursor cursor) {
 		CopyOnWriteArrayList<MessageObject> filteredMessages = new CopyOnWriteArrayList<MessageObject>();
 		List<String> identifierList = Config.getValueList(MessageQueueHelper.RESPONSE_IDENTIFIER);
 
@@ -267,58 +296,39 @@ public class MessageQueueHelper {
 		if (identifierList.isEmpty())
 			return filteredMessages;
 
-		for (Entry<MessageObject, Boolean> entry : MessageObject.outboundMessages.entrySet()) {
-			String receiveMessage = Optional.ofNullable(entry.getKey().getMessage()).orElse("");
-
-			boolean isMessageMatch = isIdentifierMatch(receiveMessage, identifierList);
-			if (entry.getValue().equals(true) && isMessageMatch) {
-
-				filteredMessages.add(entry.getKey());
-				MessageObject.outboundMessages.put(entry.getKey(), false);
-			}
-
-		}
-
+		filteredMessages.addAll(MessageObject.outboundMessages.claimByIdentifiers(identifierList, cursor));
 		return filteredMessages;
 	}
-	
-	private static boolean isIdentifierMatch(String receiveMessage, List<String> identifierList) {
-		// return if identifier is empty
-		if (identifierList.isEmpty())
-			return false;
 
-		for (String identifier : identifierList) {
-			if (!receiveMessage.contains(identifier))
-				return false;
-		}
-		return true;
+	/**
+	 * find message based on record id
+	 * 
+	 * @param messageId
+	 * @return
+	 */
+	public static CopyOnWriteArrayList<MessageObject> findMessagesBasedOnMessageId(String messageId) {
+		return findMessagesBasedOnMessageId(messageId, new MessageStore.Cursor());
 	}
 
 	/**
 	 * find message based on record id
+	 * exact matches are looked up from the message id index
+	 * if there are no exact matches, partial matches are scanned for messages received after the cursor
 	 * 
 	 * @param messageId
+	 * @param cursor
 	 * @return
 	 */
-	public static CopyOnWriteArrayList<MessageObject> findMessagesBasedOnMessageId(String messageId) {
+	public static CopyOnWriteArrayList<MessageObject> findMessagesBasedOnMessageId(String messageId, MessageStore.Cursor cursor) {
 		CopyOnWriteArrayList<MessageObject> filteredMessages = new CopyOnWriteArrayList<MessageObject>();
 
 		// return if message id is not set. message id is empty when no message is sent
 		if (messageId.isEmpty())
 			return filteredMessages;
 
-		for (Entry<MessageObject, Boolean> entry : MessageObject.outboundMessages.entrySet()) {
-			String receivedMessageId = Optional.ofNullable(entry.getKey().getMessageId()).orElse("");
-			String receivedCorrelationId = Optional.ofNullable(entry.getKey().getCorrelationId()).orElse("");
-
-			boolean isMessageMatch = receivedMessageId.contains(messageId) || receivedCorrelationId.contains(messageId);
-			if (entry.getValue().equals(true) && isMessageMatch) {
-
-				filteredMessages.add(entry.getKey());
-				MessageObject.outboundMessages.put(entry.getKey(), false);
-			}
-		}
-
+		filteredMessages.addAll(MessageObject.outboundMessages.claimByMessageId(messageId));
+		if (filteredMessages.isEmpty())
+			filteredMessages.addAll(MessageObject.outboundMessages.claimByPartialMessageId(messageId, cursor));
 		return filteredMessages;
 	}
 
@@ -329,13 +339,27 @@ public class MessageQueueHelper {
 	 * @return
 	 */
 	public static CopyOnWriteArrayList<MessageObject> filterOutboundMessage(String messageId) {
+		return filterOutboundMessage(messageId, new MessageStore.Cursor(), new MessageStore.Cursor());
+	}
+
+	/**
+	 * filter outbound message based on messageId
+	 * cursors keep track of scanned messages between retries
+	 * 
+	 * @param messageId
+	 * @param messageIdCursor
+	 * @param identifierCursor
+	 * @return
+	 */
+	public static CopyOnWriteArrayList<MessageObject> filterOutboundMessage(String messageId,
+			MessageStore.Cursor messageIdCursor, MessageStore.Cursor identifierCursor) {
 
 		// filter messages for the current test
 		CopyOnWriteArrayList<MessageObject> filteredMessages = new CopyOnWriteArrayList<MessageObject>();
 
 		// filter based on message Id
 		CopyOnWriteArrayList<MessageObject> filterByMessageId = MessageQueueHelper
-				.findMessagesBasedOnMessageId(messageId);
+				.findMessagesBasedOnMessageId(messageId, messageIdCursor);
 
 		// if message id set (message is sent in same test), use filtered by message id,
 		// else use identifier from options
@@ -343,13 +367,20 @@ public class MessageQueueHelper {
 			filteredMessages.addAll(filterByMessageId);
 		else {
 			CopyOnWriteArrayList<MessageObject> filterByMessageIdentifier = MessageQueueHelper
-					.findMessagesBasedOnResponseIdentifier();
+					.findMessagesBasedOnResponseIdentifier(identifierCursor);
 			filteredMessages.addAll(filterByMessageIdentifier);
 		}
 
 		return filteredMessages;
 	}
 
+	/**
+	 * gets outbound messages for message type
+	 * background consumers are started if not running
+	 * 
+	 * @param messageType
+	 * @throws Exception
+	 */
 	public static void getOutboundMessages(messageType messageType) throws Exception {
 		switch (messageType) {
 		case KAFKA:
@@ -373,11 +404,10 @@ public class MessageQueueHelper {
 	 */
 	public static void printAllMessages() {
 		TestLog.ConsoleLog("Printing All received messages");
-		for (Entry<MessageObject, Boolean> entry : MessageObject.outboundMessages.entrySet()) {
-			String messageId = entry.getKey().getMessageId();
-			Boolean messageAvailable = entry.getValue();
+		for (MessageObject message : MessageObject.outboundMessages.getMessages()) {
+			String messageId = message.getMessageId();
 
-			TestLog.ConsoleLog("received messagesId: '" + messageId + "'. was message read: " + !messageAvailable);
+			TestLog.ConsoleLog("received messagesId: '" + messageId + "'. was message read: " + message.isClaimed());
 		}
 	}
 
@@ -0,0 +1,181 @@
+package core.apiCore.helpers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.Delivery;
+
+import core.support.logger.TestLog;
+import core.support.objects.MessageObject;
+import core.support.objects.MessageObject.messageType;
+
+/**
+ * shared rabbitMq connection with a channel per test thread
+ * channels are not thread safe, hence each thread publishes on its own channel
+ * outbound queues are consumed by push based consumers, which add received messages to the outbound message store
+ */
+public class RabbitMqHelper {
+
+	private static volatile Connection connection = null;
+
+	// channel of current thread. all channels are tracked for closing
+	private static final ThreadLocal<Channel> threadChannel = new ThreadLocal<Channel>();
+	private static final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+
+	// key: queue name, value: consumer channel
+	private static final Map<String, Channel> consumers = new ConcurrentHashMap<String, Channel>();
+
+	// queues and exchanges already declared and bound
+	private static final Set<String> declarations = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * creates shared connection if not connected
+	 *
+	 * @param factory
+	 * @throws Exception
+	 */
+	public static void connect(ConnectionFactory factory) throws Exception {
+		if (isConnected())
+			return;
+
+		synchronized (RabbitMqHelper.class) {
+			if (!isConnected())
+				connection = factory.newConnection();
+		}
+	}
+
+	public static boolean isConnected() {
+		Connection current = connection;
+		return current != null && current.isOpen();
+	}
+
+	/**
+	 * gets channel for current thread, creates one if not available or closed
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public static Channel getChannel() throws IOException {
+		Channel channel = threadChannel.get();
+		if (channel != null && channel.isOpen())
+			return channel;
+
+		if (channel != null)
+			channels.remove(channel);
+		channel = connection.createChannel();
+		channels.add(channel);
+		threadChannel.set(channel);
+		return channel;
+	}
+
+	/**
+	 * runs declaration once per key. eg. queue declare, exchange bind
+	 *
+	 * @param key
+	 * @param declaration
+	 * @throws IOException
+	 */
+	public static void declareOnce(String key, ChannelAction declaration) throws IOException {
+		if (declarations.contains(key))
+			return;
+		declaration.run(getChannel());
+		declarations.add(key);
+	}
+
+	public interface ChannelAction {
+		void run(Channel channel) throws IOException;
+	}
+
+	/**
+	 * starts push based consumer for queue if not already consuming
+	 * deliveries are acknowledged after they are added to the outbound message store
+	 * prefetch limits unacknowledged deliveries sent to the consumer
+	 *
+	 * @param queueName
+	 * @param prefetch
+	 * @throws IOException
+	 */
+	public static void startConsumer(String queueName, int prefetch) throws IOException {
+		Channel current = consumers.get(queueName);
+		if (current != null && current.isOpen())
+			return;
+
+		synchronized (consumers) {
+			current = consumers.get(queueName);
+			if (current != null && current.isOpen())
+				return;
+
+			Channel channel = connection.createChannel();
+			if (prefetch > 0)
+				channel.basicQos(prefetch);
+
+			channel.basicConsume(queueName, false, (consumerTag, delivery) -> {
+				MessageObject.outboundMessages.add(toMessageObject(delivery));
+				channel.basicAck(delivery.getEnvelope().getDeliveryTag(), false);
+			}, consumerTag -> consumers.remove(queueName, channel));
+			consumers.put(queueName, channel);
+		}
+	}
+
+	public static boolean isConsuming(String queueName) {
+		Channel channel = consumers.get(queueName);
+		return channel != null && channel.isOpen();
+	}
+
+	/**
+	 * closes consumers, channels and connection. called at suite end
+	 */
+	public static void close() {
+		for (Channel channel : consumers.values())
+			closeQuietly(channel);
+		consumers.clear();
+
+		for (Channel channel : channels)
+			closeQuietly(channel);
+		channels.clear();
+		declarations.clear();
+
+		synchronized (RabbitMqHelper.class) {
+			if (connection != null) {
+				try {
+					connection.close();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+				connection = null;
+			}
+		}
+	}
+
+	/**
+	 * maps rabbitMq delivery to message object
+	 *
+	 * @param delivery
+	 * @return
+	 */
+	public static MessageObject toMessageObject(Delivery delivery) {
+		String messageString = new String(delivery.getBody(), StandardCharsets.UTF_8);
+
+		MessageObject message = new MessageObject().withMessageType(messageType.RABBITMQ)
+				.withMessageId(delivery.getProperties().getMessageId())
+				.withCorrelationId(delivery.getProperties().getCorrelationId()).withMessage(messageString);
+		TestLog.ConsoleLogDebug(
+				"Received message with Id: " + message.getMessageId() + " message: " + message.getMessage());
+		return message;
+	}
+
+	private static void closeQuietly(Channel channel) {
+		try {
+			if (channel.isOpen())
+				channel.close();
+		} catch (Exception e) {
+			// channel is discarded
+		}
+	}
+}
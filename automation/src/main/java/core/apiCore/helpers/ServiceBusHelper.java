@@ -0,0 +1,156 @@
+package core.apiCore.helpers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.microsoft.azure.servicebus.ClientFactory;
+import com.microsoft.azure.servicebus.ExceptionPhase;
+import com.microsoft.azure.servicebus.ICloseable;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+import com.microsoft.azure.servicebus.IMessageSender;
+import com.microsoft.azure.servicebus.ISubscriptionClient;
+import com.microsoft.azure.servicebus.MessageHandlerOptions;
+import com.microsoft.azure.servicebus.ReceiveMode;
+import com.microsoft.azure.servicebus.SubscriptionClient;
+import com.microsoft.azure.servicebus.primitives.ConnectionStringBuilder;
+
+import core.support.logger.TestLog;
+import core.support.objects.MessageObject;
+import core.support.objects.MessageObject.messageType;
+
+/**
+ * registry of service bus clients, keyed by connection string and entity path
+ * senders and subscription clients are created once and reused across tests
+ * subscription clients register a single message handler, which adds messages to the outbound message store
+ */
+public class ServiceBusHelper {
+
+	// key: connection string, entity path
+	private static final Map<String, IMessageSender> senders = new ConcurrentHashMap<String, IMessageSender>();
+	private static final Map<String, ISubscriptionClient> subscriptions = new ConcurrentHashMap<String, ISubscriptionClient>();
+
+	/**
+	 * creates client from connection string and entity path
+	 * can be replaced with an in process stand-in. eg. local amqp broker client
+	 */
+	public interface ClientCreator<T> {
+		T create(ConnectionStringBuilder builder) throws Exception;
+	}
+
+	public static ClientCreator<IMessageSender> senderFactory = builder -> ClientFactory
+			.createMessageSenderFromConnectionStringBuilder(builder);
+
+	public static ClientCreator<ISubscriptionClient> subscriptionFactory = builder -> new SubscriptionClient(builder,
+			ReceiveMode.PEEKLOCK);
+
+	/**
+	 * gets shared sender for queue or topic, creates one if not available
+	 *
+	 * @param connectionString
+	 * @param entityPath       queue or topic name
+	 * @return
+	 */
+	public static IMessageSender getSender(String connectionString, String entityPath) {
+		return senders.computeIfAbsent(getKey(connectionString, entityPath), k -> {
+			try {
+				return senderFactory.create(new ConnectionStringBuilder(connectionString, entityPath));
+			} catch (Exception e) {
+				throw new RuntimeException("Could not create service bus sender for: " + entityPath, e);
+			}
+		});
+	}
+
+	/**
+	 * registers message handler on subscription if not already registered
+	 * received messages are added to the outbound message store and completed
+	 *
+	 * @param connectionString
+	 * @param entityPath       topic/subscriptions/subscription name
+	 * @param concurrency      max concurrent message handler calls
+	 * @param prefetch         messages prefetched by the client. 0 to disable
+	 */
+	public static void startSubscription(String connectionString, String entityPath, int concurrency, int prefetch) {
+		subscriptions.computeIfAbsent(getKey(connectionString, entityPath), k -> {
+			try {
+				ISubscriptionClient client = subscriptionFactory
+						.create(new ConnectionStringBuilder(connectionString, entityPath));
+				if (prefetch >= 0)
+					client.setPrefetchCount(prefetch);
+				registerMessageHandler(client, concurrency);
+				return client;
+			} catch (Exception e) {
+				throw new RuntimeException("Could not subscribe to service bus: " + entityPath, e);
+			}
+		});
+	}
+
+	public static boolean isSubscribed(String connectionString, String entityPath) {
+		return subscriptions.containsKey(getKey(connectionString, entityPath));
+	}
+
+	/**
+	 * closes all senders and subscription clients. called at suite end
+	 */
+	public static void closeAllClients() {
+		for (IMessageSender sender : senders.values())
+			closeQuietly(sender);
+		senders.clear();
+
+		for (ISubscriptionClient client : subscriptions.values())
+			closeQuietly(client);
+		subscriptions.clear();
+	}
+
+	/**
+	 * maps service bus message to message object
+	 *
+	 * @param message
+	 * @return
+	 */
+	@SuppressWarnings("deprecation")
+	public static MessageObject toMessageObject(IMessage message) {
+		MessageObject messageObject = new MessageObject().withMessageType(messageType.SERVICEBUS)
+				.withMessageId(message.getMessageId()).withCorrelationId(message.getCorrelationId())
+				.withMessage(message.getMessageBody().getValueData().toString()).withLabel(message.getLabel());
+
+		TestLog.ConsoleLogDebug("Received messageId '" + message.getMessageId() + "\n with message content: "
+				+ messageObject.getMessage());
+		return messageObject;
+	}
+
+	@SuppressWarnings("deprecation")
+	private static void registerMessageHandler(ISubscriptionClient receiveClient, int concurrency) throws Exception {
+
+		// callback invoked when the message handler loop has obtained a message
+		IMessageHandler messageHandler = new IMessageHandler() {
+			public CompletableFuture<Void> onMessageAsync(IMessage message) {
+				MessageObject.outboundMessages.add(toMessageObject(message));
+				return receiveClient.completeAsync(message.getLockToken());
+			}
+
+			@Override
+			public void notifyException(Throwable throwable, ExceptionPhase exceptionPhase) {
+				TestLog.ConsoleLogError("service bus " + exceptionPhase + " - " + throwable.getMessage());
+			}
+		};
+
+		// messages are completed by handler, auto-renew duration
+		receiveClient.registerMessageHandler(messageHandler,
+				new MessageHandlerOptions(Math.max(1, concurrency), false, Duration.ofMinutes(1)));
+	}
+
+	private static String getKey(String connectionString, String entityPath) {
+		return connectionString + "|" + entityPath;
+	}
+
+	private static void closeQuietly(ICloseable client) {
+		try {
+			client.close();
+		} catch (Exception e) {
+			// client is discarded
+		}
+	}
+}
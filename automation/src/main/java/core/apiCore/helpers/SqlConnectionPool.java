@@ -0,0 +1,308 @@
+package core.apiCore.helpers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import core.helpers.Helper;
+import core.support.logger.TestLog;
+import core.support.objects.DatabaseObject;
+
+/**
+ * bounded jdbc connection pool for a configured database
+ * connections are leased by a test for the duration of a query and returned after
+ * connections are validated on borrow, and idle connections are closed after idle timeout
+ * prepared statements are cached per connection, keyed by sql text and result set type
+ *
+ * pool values are set per database. eg. db.1.pool.size = 5, db.1.pool.idle.seconds = 300, db.1.statement.cache.size = 50
+ */
+public class SqlConnectionPool {
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+	private static final long EVICTION_INTERVAL_MILLIS = 30000;
+
+	private final DatabaseObject database;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long leaseTimeoutSeconds;
+	private final Semaphore permits;
+	private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+	private final AtomicBoolean isSshConnected = new AtomicBoolean(false);
+	private volatile boolean isClosed = false;
+
+	// most recently returned connections at the head
+	private final ConcurrentLinkedDeque<IdleConnection> idle = new ConcurrentLinkedDeque<IdleConnection>();
+
+	// key: connection. a connection is leased by a single thread, hence caches are not shared
+	private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<Connection, StatementCache>();
+
+	private static class IdleConnection {
+		final Connection connection;
+		final long returnedTime;
+
+		IdleConnection(Connection connection) {
+			this.connection = connection;
+			this.returnedTime = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * least recently used prepared statements of a connection
+	 * evicted statements are closed
+	 */
+	private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		StatementCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+			if (size() <= maxSize)
+				return false;
+			closeQuietly(eldest.getValue());
+			return true;
+		}
+
+		void closeAll() {
+			for (PreparedStatement statement : values())
+				closeQuietly(statement);
+			clear();
+		}
+	}
+
+	public SqlConnectionPool(DatabaseObject database, int maxSize, long idleTimeoutSeconds, long leaseTimeoutSeconds) {
+		this.database = database;
+		this.maxSize = Math.max(1, maxSize);
+		this.idleTimeoutMillis = idleTimeoutSeconds * 1000;
+		this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+		this.permits = new Semaphore(this.maxSize, true);
+	}
+
+	/**
+	 * leases a connection from the pool, waits if all connections are in use
+	 * connection is validated before returned, invalid connections are replaced
+	 *
+	 * @return
+	 */
+	public Connection lease() {
+		boolean isAcquired = false;
+		try {
+			isAcquired = permits.tryAcquire(leaseTimeoutSeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!isAcquired)
+			Helper.assertFalse("no sql connection available after " + leaseTimeoutSeconds
+					+ " seconds. pool size: " + maxSize + " database: " + database.getDatabaseName());
+
+		try {
+			IdleConnection candidate;
+			while ((candidate = idle.pollFirst()) != null) {
+				if (isValid(candidate.connection))
+					return candidate.connection;
+				closeQuietly(candidate.connection);
+			}
+			return createConnection();
+		} catch (RuntimeException | Error e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * returns leased connection to the pool
+	 * closed connections are discarded. if the pool is closed, connection is closed
+	 *
+	 * @param connection
+	 */
+	public void release(Connection connection) {
+		if (connection == null)
+			return;
+		try {
+			if (connection.isClosed())
+				return;
+			if (!connection.getAutoCommit())
+				connection.rollback();
+			if (isClosed) {
+				closeQuietly(connection);
+				return;
+			}
+			idle.offerFirst(new IdleConnection(connection));
+
+			// pool was closed while connection was returned
+			if (isClosed)
+				closeIdleConnections();
+		} catch (SQLException e) {
+			closeQuietly(connection);
+		} finally {
+			permits.release();
+			evictIdleConnections();
+		}
+	}
+
+	/**
+	 * prepares statement on leased connection, reusing cached statement for same sql text
+	 * cached statements are kept open when the connection is returned to the pool
+	 * caching is disabled if statement cache size is 0
+	 *
+	 * @param connection
+	 * @param sql
+	 * @param resultSetType
+	 * @param concurrency
+	 * @return
+	 * @throws SQLException
+	 */
+	public PreparedStatement prepareStatement(Connection connection, String sql, int resultSetType, int concurrency)
+			throws SQLException {
+		int cacheSize = database.getStatementCacheSize();
+		if (cacheSize <= 0)
+			return connection.prepareStatement(sql, resultSetType, concurrency);
+
+		StatementCache cache = statementCaches.computeIfAbsent(connection, k -> new StatementCache(cacheSize));
+		String key = resultSetType + ":" + concurrency + ":" + sql;
+		PreparedStatement statement = cache.get(key);
+		if (statement != null && !statement.isClosed()) {
+			statement.clearParameters();
+			return statement;
+		}
+
+		statement = connection.prepareStatement(sql, resultSetType, concurrency);
+		cache.put(key, statement);
+		return statement;
+	}
+
+	/**
+	 * closes result set, and its statement if the statement is not cached
+	 *
+	 * @param connection
+	 * @param resSet
+	 */
+	public void closeResultSet(Connection connection, ResultSet resSet) {
+		if (resSet == null)
+			return;
+		try {
+			Statement statement = resSet.getStatement();
+			resSet.close();
+
+			StatementCache cache = statementCaches.get(connection);
+			if (statement != null && (cache == null || !cache.containsValue(statement)))
+				statement.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public int getCachedStatementCount(Connection connection) {
+		StatementCache cache = statementCaches.get(connection);
+		return cache == null ? 0 : cache.size();
+	}
+
+	/**
+	 * closes all idle connections. leased connections are closed on release
+	 */
+	public void close() {
+		isClosed = true;
+		closeIdleConnections();
+	}
+
+	private void closeIdleConnections() {
+		IdleConnection candidate;
+		while ((candidate = idle.pollFirst()) != null)
+			closeQuietly(candidate.connection);
+	}
+
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	/**
+	 * closes connections that are idle longer than idle timeout
+	 * runs at most once per eviction interval
+	 */
+	private void evictIdleConnections() {
+		long now = System.currentTimeMillis();
+		long last = lastEviction.get();
+		if (now - last < EVICTION_INTERVAL_MILLIS || !lastEviction.compareAndSet(last, now))
+			return;
+
+		// oldest connections are at the tail
+		Iterator<IdleConnection> iterator = idle.descendingIterator();
+		while (iterator.hasNext()) {
+			IdleConnection candidate = iterator.next();
+			if (now - candidate.returnedTime < idleTimeoutMillis)
+				break;
+			if (idle.removeLastOccurrence(candidate))
+				closeQuietly(candidate.connection);
+		}
+	}
+
+	private Connection createConnection() {
+		try {
+			// connect through ssh if set in api config. once per pool
+			if (isSshConnected.compareAndSet(false, true))
+				ConnectionHelper.sshConnect();
+
+			// Register JDBC driver
+			Class.forName(database.getDriver());
+
+			// set database connection info
+			String connectionString = database.getUrl() + "/" + database.getDatabaseName();
+			TestLog.logPass("db connection: " + connectionString);
+			TestLog.logPass("db username: " + database.getUsername());
+
+			return DriverManager.getConnection(connectionString, database.getUsername(), database.getPassword());
+		} catch (Exception e) {
+			TestLog.logPass("sql connection failed: " + e.getMessage());
+			e.printStackTrace();
+			Helper.assertFalse("sql connection failed");
+		}
+		return null;
+	}
+
+	private static boolean isValid(Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void closeQuietly(Connection connection) {
+		StatementCache cache = statementCaches.remove(connection);
+		if (cache != null)
+			cache.closeAll();
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// connection is discarded
+		}
+	}
+
+	private static void closeQuietly(Statement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// statement is discarded
+		}
+	}
+}
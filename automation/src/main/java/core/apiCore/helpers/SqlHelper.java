@@ -1,9 +1,13 @@
 package core.apiCore.helpers;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONException;
@@ -18,6 +22,16 @@ import io.restassured.response.Response;
 
 public class SqlHelper {
 
+	public static final String RAND_DATABASE_MAX_ROWS = "<@RAND_DatabaseMaxRows>";
+
+	/**
+	 * randomly selected result row. values are set if the row was captured while streaming
+	 */
+	public static class RowSample {
+		public int row = 0;
+		public Map<String, String> values = null; // key: column label, case insensitive
+	}
+
 	/**
 	 * replaces output parameter with response values eg. $token with id form
 	 * response
@@ -58,7 +72,11 @@ public class SqlHelper {
 			return;
 
 		// set random value based on database max number of rows. 0...max-row-count
-		keyValue = setRandomRowValue(resSet, keyValue);
+		RowSample sample = null;
+		if (keyValue.contains(RAND_DATABASE_MAX_ROWS)) {
+			sample = sampleRandomRow(resSet);
+			keyValue = keyValue.replace(RAND_DATABASE_MAX_ROWS, String.valueOf(sample.row));
+		}
 
 		// replace parameters for outputParam
 		keyValue = DataHelper.replaceParameters(keyValue);
@@ -74,8 +92,7 @@ public class SqlHelper {
 			if (keyword.position.isEmpty()) {
 				value = getAllValuesInColumn(resSet, keyword.key);
 			} else {
-				resSet.absolute(Integer.valueOf(keyword.position));
-				value = resSet.getString(keyword.key);
+				value = getValueAtRow(resSet, sample, Integer.valueOf(keyword.position), keyword.key);
 			}
 
 			if (!keyword.position.isEmpty()) {
@@ -95,6 +112,47 @@ public class SqlHelper {
 		return String.join(",", results);
 	}
 
+	/**
+	 * gets column value at row
+	 * uses the sampled row values if the row was captured while streaming
+	 * 
+	 * @param resSet
+	 * @param sample
+	 * @param row
+	 * @param column
+	 * @return
+	 * @throws SQLException
+	 */
+	private static String getValueAtRow(ResultSet resSet, RowSample sample, int row, String column)
+			throws SQLException {
+		if (sample != null && sample.values != null && sample.row == row)
+			return sample.values.get(column);
+
+		moveToRow(resSet, row);
+		return resSet.getString(column);
+	}
+
+	/**
+	 * moves result set to row
+	 * forward only result sets can only move forward. validation order is planned in isScrollRequired
+	 * forward only result sets are wrapped by ForwardOnlyResultSet, which counts the rows read
+	 * 
+	 * @param resSet
+	 * @param row
+	 * @throws SQLException
+	 */
+	public static void moveToRow(ResultSet resSet, int row) throws SQLException {
+		if (resSet.getType() != ResultSet.TYPE_FORWARD_ONLY) {
+			resSet.absolute(row);
+			return;
+		}
+
+		if (resSet.getRow() > row)
+			throw new SQLException("row " + row + " is before current row " + resSet.getRow() + " on forward only result set");
+		while (resSet.getRow() < row && resSet.next())
+			;
+	}
+
 	/**
 	 * replaces RAND_DatabaseMaxRows variable with random number
 	 * 
@@ -108,26 +166,133 @@ public class SqlHelper {
 			return outputParam;
 
 		// set random value based on database max number of rows. 0...max-row-count
-		if (outputParam.contains("<@RAND_DatabaseMaxRows>")) {
-			int maxRowCount = getMaxResultRowCount(resSet);
-			int row = Helper.generateRandomNumber(1, maxRowCount);
-			outputParam = outputParam.replace("<@RAND_DatabaseMaxRows>", String.valueOf(row));
+		if (outputParam.contains(RAND_DATABASE_MAX_ROWS)) {
+			RowSample sample = sampleRandomRow(resSet);
+			outputParam = outputParam.replace(RAND_DATABASE_MAX_ROWS, String.valueOf(sample.row));
 		}
 		return outputParam;
 	}
 
 	/**
-	 * gets the number of results from ResultSet
+	 * selects a random row in a single pass using reservoir sampling
+	 * scrollable result sets are reset to before first row, the row is read later
+	 * forward only result sets are consumed, the values of the selected row are captured
 	 * 
 	 * @param resSet
 	 * @return
 	 * @throws SQLException
 	 */
-	private static int getMaxResultRowCount(ResultSet resSet) throws SQLException {
-		resSet.last();
-		int size = resSet.getRow();
-		resSet.beforeFirst();
-		return size;
+	public static RowSample sampleRandomRow(ResultSet resSet) throws SQLException {
+		RowSample sample = new RowSample();
+		boolean isForwardOnly = resSet.getType() == ResultSet.TYPE_FORWARD_ONLY;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		boolean hasRow;
+		if (isForwardOnly)
+			// current row of forward only result set is counted by ForwardOnlyResultSet
+			hasRow = resSet.getRow() > 0 || resSet.next();
+		else {
+			resSet.beforeFirst();
+			hasRow = resSet.next();
+		}
+
+		int count = 0;
+		while (hasRow) {
+			count++;
+
+			// replace the selected row with probability 1/count
+			if (random.nextInt(count) == 0) {
+				sample.row = count;
+				if (isForwardOnly)
+					sample.values = getRowValues(resSet);
+			}
+			hasRow = resSet.next();
+		}
+
+		if (!isForwardOnly)
+			resSet.beforeFirst();
+		return sample;
+	}
+
+	/**
+	 * gets values of current row, keyed by column label
+	 * 
+	 * @param resSet
+	 * @return
+	 * @throws SQLException
+	 */
+	private static Map<String, String> getRowValues(ResultSet resSet) throws SQLException {
+		Map<String, String> values = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		ResultSetMetaData metaData = resSet.getMetaData();
+		for (int i = 1; i <= metaData.getColumnCount(); i++) {
+			values.put(metaData.getColumnLabel(i), resSet.getString(i));
+		}
+		return values;
+	}
+
+	/**
+	 * returns true if validation of the result set requires scrolling
+	 * result set can be streamed forward only if all output and expected values
+	 * reference rows in ascending order, and random row is only used without expected values
+	 * 
+	 * @param outputParams
+	 * @param expected
+	 * @return
+	 */
+	public static boolean isScrollRequired(String outputParams, String expected) {
+		if (outputParams.isEmpty() && expected.isEmpty())
+			return false;
+
+		// random row consumes the result set, so only the random row can be read
+		if (outputParams.contains(RAND_DATABASE_MAX_ROWS)) {
+			if (!expected.isEmpty())
+				return true;
+			for (KeyValue keyword : DataHelper.getValidationMap(outputParams)) {
+				if (!Helper.stringNormalize(keyword.position).equals(RAND_DATABASE_MAX_ROWS))
+					return true;
+			}
+			return false;
+		}
+
+		List<Integer> rows = getValidationRows(outputParams);
+		if (rows == null)
+			return true;
+
+		// criteria are validated in order, each criterion reads its rows
+		for (String criterion : expected.split("&&")) {
+			if (isValidJson(criterion))
+				return true;
+			List<Integer> expectedRows = getValidationRows(criterion);
+			if (expectedRows == null)
+				return true;
+			rows.addAll(expectedRows);
+		}
+
+		for (int i = 1; i < rows.size(); i++) {
+			if (rows.get(i) < rows.get(i - 1))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * gets row positions of keywords in order
+	 * 
+	 * @param value
+	 * @return null if a keyword has no row position
+	 */
+	private static List<Integer> getValidationRows(String value) {
+		List<Integer> rows = new ArrayList<Integer>();
+		if (value.isEmpty())
+			return rows;
+
+		for (KeyValue keyword : DataHelper.getValidationMap(value)) {
+			String position = Helper.stringNormalize(keyword.position);
+			if (!position.matches("\\d+"))
+				return null;
+			rows.add(Integer.valueOf(position));
+		}
+		return rows;
 	}
 
 	/**
@@ -164,7 +329,7 @@ public class SqlHelper {
 			if (position.isEmpty()) {
 				responseString = getAllValuesInColumn(resSet, keyword.key);
 			} else {
-				resSet.absolute(Integer.valueOf(position));
+				moveToRow(resSet, Integer.valueOf(position));
 				responseString = Helper.removeSurroundingQuotes(resSet.getString(key));
 			}
 
@@ -0,0 +1,278 @@
+package core.apiCore.helpers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import core.helpers.Helper;
+import core.support.configReader.Config;
+import core.support.logger.TestLog;
+import core.support.objects.TestObject;
+
+/**
+ * template engine for placeholder parameters. eg. <@_TIME_MS_13>, <@_RAND16>, <@userId>
+ * templates are split once into literal and placeholder segments, and cached by template text. least recently used templates are evicted
+ * each placeholder is bound to its resolver when the template is parsed
+ * rendering is a single pass, each distinct placeholder is resolved once per render
+ *
+ * resolvers are matched by key, in order of registration. parameters without a matching resolver are read from config
+ */
+public class TemplateEngine {
+
+	private static final int MAX_CACHED_TEMPLATES = 2000;
+
+	// key: resolver key, matched if parameter contains key. eg. _TIME_MS_
+	private static volatile Map<String, ParameterResolver> resolvers = Collections.emptyMap();
+
+	// key: tag pattern, template text
+	private static final Map<TemplateKey, Template> templates = Collections
+			.synchronizedMap(new TemplateCache(MAX_CACHED_TEMPLATES));
+	private static final Map<String, Pattern> patterns = new ConcurrentHashMap<String, Pattern>();
+
+	private static final ParameterResolver CONFIG_RESOLVER = (parameter, source) -> Config
+			.getObjectValue(parameter.replace("@", ""));
+
+	/**
+	 * resolves a placeholder parameter to its value
+	 */
+	public interface ParameterResolver {
+
+		/**
+		 * @param parameter placeholder value without tags. eg. _RAND16
+		 * @param source    template text
+		 * @return value, or empty if not found
+		 */
+		Object resolve(String parameter, String source);
+	}
+
+	static {
+		registerResolver("_TIME_MS_", (parameter, source) -> {
+			String newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
+			Instant time = DataHelper.getTimeInstance(newTime);
+			return DataHelper.getTimeSubstring(parameter, String.valueOf(time.toEpochMilli()));
+		});
+		registerResolver("_TIME_S_", (parameter, source) -> {
+			String newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
+			Instant time = DataHelper.getTimeInstance(newTime);
+			return DataHelper.getTimeSubstring(parameter, String.valueOf(time.getEpochSecond()));
+		});
+		registerResolver("_TIME_STRING_", (parameter, source) -> {
+			String newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
+			return DataHelper.getTimeSubstring(parameter, Helper.date.getTime(newTime, "yyyyMMddHHmmssSSS", null));
+		});
+		registerResolver("_TIME_ISO_", (parameter, source) -> {
+			String newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
+			return DataHelper.getTimeSubstring(parameter, newTime);
+		});
+		registerResolver("_TIME", (parameter, source) -> {
+			String newTime = Helper.date.getTime(parameter, Config.getValue(TestObject.START_TIME_STRING));
+			return DataHelper.getTimeSubstring(parameter, newTime);
+		});
+		registerResolver("_RANDUUID", (parameter, source) -> Helper.generateUUID());
+		registerResolver("_UUID_STATIC", (parameter, source) -> Config.getValue(TestObject.UUID_STATIC_STRING));
+		registerResolver("_RAND", (parameter, source) -> {
+			int length = Helper.getIntFromString(parameter);
+			return Config.getValue(TestObject.RANDOM_STRING).substring(0, length);
+		});
+		registerResolver("_INCREMENT_FROM_", (parameter, source) -> DataHelper.getIncrementalValue(parameter));
+		registerResolver("_XML", (parameter, source) -> {
+			// syntax:e.g. <@_XML:ID:1> will be replaced by 2
+			String[] valueArray = parameter.split(":");
+			int index = 0;
+			String tag = valueArray[1];
+			if (valueArray.length == 3) // if has index value
+				index = Integer.valueOf(valueArray[2]);
+			return XmlHelper.getXmlTagValue(source, tag, index + 1);
+		});
+	}
+
+	/**
+	 * parsed template. literals[i] is followed by placeholders[i]. last literal has no placeholder
+	 */
+	static class Template {
+		final String[] literals;
+		final String[] parameters;
+		final String[] rawTags;
+		final ParameterResolver[] bindings;
+
+		Template(List<String> literals, List<String> parameters, List<String> rawTags) {
+			this.literals = literals.toArray(new String[0]);
+			this.parameters = parameters.toArray(new String[0]);
+			this.rawTags = rawTags.toArray(new String[0]);
+			this.bindings = new ParameterResolver[this.parameters.length];
+			for (int i = 0; i < this.parameters.length; i++)
+				bindings[i] = getResolver(this.parameters[i]);
+		}
+	}
+
+	/**
+	 * template cache key. hash is computed once, template text is compared only on hash match
+	 */
+	static class TemplateKey {
+		final String tagPattern;
+		final String source;
+		final int hash;
+
+		TemplateKey(String tagPattern, String source) {
+			this.tagPattern = tagPattern;
+			this.source = source;
+			this.hash = 31 * tagPattern.hashCode() + source.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object)
+				return true;
+			if (!(object instanceof TemplateKey))
+				return false;
+			TemplateKey other = (TemplateKey) object;
+			return hash == other.hash && tagPattern.equals(other.tagPattern) && source.equals(other.source);
+		}
+	}
+
+	/**
+	 * least recently used parsed templates
+	 */
+	private static class TemplateCache extends LinkedHashMap<TemplateKey, Template> {
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		TemplateCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TemplateKey, Template> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+	/**
+	 * registers resolver for parameters containing key
+	 * resolvers are matched in order of registration. registering an existing key replaces its resolver
+	 *
+	 * @param key
+	 * @param resolver
+	 */
+	public static synchronized void registerResolver(String key, ParameterResolver resolver) {
+		Map<String, ParameterResolver> updated = new LinkedHashMap<String, ParameterResolver>(resolvers);
+		updated.put(key, resolver);
+		resolvers = Collections.unmodifiableMap(updated);
+
+		// cached templates are bound to previous resolvers
+		templates.clear();
+	}
+
+	/**
+	 * replaces placeholder parameters in source
+	 * parameters with empty values are kept as is
+	 *
+	 * @param source
+	 * @param tagPattern regular expression with parameter as group 1. eg. <@(.+?)>
+	 * @param openingTag
+	 * @param closingTag
+	 * @return
+	 */
+	public static String render(String source, String tagPattern, String openingTag, String closingTag) {
+		if (source.isEmpty() || !source.contains(openingTag))
+			return source;
+
+		Template template = getTemplate(source, tagPattern);
+		if (template.parameters.length == 0)
+			return source;
+
+		StringBuilder builder = new StringBuilder(source.length() + 16 * template.parameters.length);
+		Map<String, String> values = new HashMap<String, String>();
+		for (int i = 0; i < template.parameters.length; i++) {
+			builder.append(template.literals[i]);
+
+			String parameter = template.parameters[i];
+			String value = values.get(parameter);
+			if (value == null) {
+				value = resolve(template.bindings[i], parameter, source, template.rawTags[i]);
+				values.put(parameter, value);
+			}
+			builder.append(value);
+		}
+		builder.append(template.literals[template.parameters.length]);
+		return builder.toString();
+	}
+
+	public static int getCachedTemplateCount() {
+		return templates.size();
+	}
+
+	public static void clearCache() {
+		templates.clear();
+	}
+
+	/**
+	 * resolves parameter, returns the raw tag if value is empty
+	 */
+	private static String resolve(ParameterResolver resolver, String parameter, String source, String rawTag) {
+		Object value = resolver.resolve(parameter, source);
+		if (DataHelper.isObjectEmpty(value)) {
+			TestLog.logWarning("parameter value not found: " + parameter);
+			return rawTag;
+		}
+		return Matcher.quoteReplacement(value.toString());
+	}
+
+	private static ParameterResolver getResolver(String parameter) {
+		for (Map.Entry<String, ParameterResolver> entry : resolvers.entrySet()) {
+			if (parameter.contains(entry.getKey()))
+				return entry.getValue();
+		}
+		return CONFIG_RESOLVER;
+	}
+
+	/**
+	 * gets parsed template from cache, parses template if not cached
+	 * least recently used template is evicted when max size is reached
+	 *
+	 * @param source
+	 * @param tagPattern
+	 * @return
+	 */
+	private static Template getTemplate(String source, String tagPattern) {
+		TemplateKey key = new TemplateKey(tagPattern, source);
+		Template template = templates.get(key);
+		if (template != null)
+			return template;
+
+		template = parse(source, tagPattern);
+		templates.put(key, template);
+		return template;
+	}
+
+	private static Template parse(String source, String tagPattern) {
+		List<String> literals = new ArrayList<String>();
+		List<String> parameters = new ArrayList<String>();
+		List<String> rawTags = new ArrayList<String>();
+
+		Pattern pattern = patterns.computeIfAbsent(tagPattern, Pattern::compile);
+		Matcher matcher = pattern.matcher(source);
+		int last = 0;
+		while (matcher.find()) {
+			literals.add(source.substring(last, matcher.start()));
+			parameters.add(matcher.group(1));
+			rawTags.add(matcher.group());
+			last = matcher.end();
+		}
+		literals.add(source.substring(last));
+		return new Template(literals, parameters, rawTags);
+	}
+}
@@ -1,18 +1,24 @@
 package core.apiCore.helpers;
 
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -46,6 +52,53 @@ import core.support.objects.KeyValue;
 import core.support.objects.ServiceObject;
 
 public class XmlHelper {
+
+	private static final int MAX_CACHED_XPATHS = 500;
+
+	// document builders are not thread safe. each thread reuses its own builders
+	private static final ThreadLocal<DocumentBuilder> namespaceAwareBuilder = ThreadLocal
+			.withInitial(() -> newDocumentBuilder(true));
+	private static final ThreadLocal<DocumentBuilder> documentBuilder = ThreadLocal
+			.withInitial(() -> newDocumentBuilder(false));
+
+	// compiled xpath expressions are not thread safe. key: xpath
+	private static final ThreadLocal<XPath> xpathObject = ThreadLocal
+			.withInitial(() -> XPathFactory.newInstance().newXPath());
+	private static final ThreadLocal<Map<String, XPathExpression>> xpathExpressions = ThreadLocal
+			.withInitial(() -> new HashMap<String, XPathExpression>());
+
+	// key: file path
+	private static final Map<String, XmlFile> xmlFiles = new ConcurrentHashMap<String, XmlFile>();
+
+	private static final ErrorHandler SILENT_ERROR_HANDLER = new ErrorHandler() {
+		@Override
+		public void warning(SAXParseException exception) throws SAXException {
+		}
+
+		@Override
+		public void error(SAXParseException exception) throws SAXException {
+		}
+
+		@Override
+		public void fatalError(SAXParseException exception) throws SAXException {
+		}
+	};
+
+	/**
+	 * xml file contents, reloaded when file is modified
+	 */
+	private static class XmlFile {
+		final String contents;
+		final long modifiedMillis;
+		final long size;
+
+		XmlFile(String contents, long modifiedMillis, long size) {
+			this.contents = contents;
+			this.modifiedMillis = modifiedMillis;
+			this.size = size;
+		}
+	}
+
 	/**
 	 * Convert a contents of a Document to a String
 	 * 
@@ -78,9 +131,7 @@ public class XmlHelper {
 	public static Document convertXmlStringToDocument(String xmlStr) {
 		Document doc = null;
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setNamespaceAware(true);
-			DocumentBuilder builder = factory.newDocumentBuilder();
+			DocumentBuilder builder = getDocumentBuilder(namespaceAwareBuilder);
 
 			doc = builder.parse(new InputSource(new StringReader(xmlStr)));
 			doc.getDocumentElement().normalize();
@@ -106,21 +157,21 @@ public class XmlHelper {
 	/**
 	 * Read a XML file And get a Document retrying And catching interruptions from
 	 * other threads.
+	 * file contents are cached by path, and reloaded when the file is modified
 	 * 
 	 * @param inputFilePath
 	 * @return Document
 	 */
-	public synchronized static Document readFile(String inputFilePath) {
+	public static Document readFile(String inputFilePath) {
 		Document doc = null;
 		int retry = 3;
 		do {
 			try {
 				retry--;
 
-				String inputFileContents = new String(Files.readAllBytes(Paths.get(inputFilePath)));
+				String inputFileContents = getFileContents(Paths.get(inputFilePath));
 				inputFileContents = DataHelper.replaceParameters(inputFileContents);
-				DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-				DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+				DocumentBuilder dBuilder = getDocumentBuilder(documentBuilder);
 				doc = dBuilder.parse(new InputSource(new StringReader(inputFileContents)));
 				doc.getDocumentElement().normalize();
 			} catch (Exception ex) {
@@ -130,6 +181,69 @@ public class XmlHelper {
 		return doc;
 	}
 
+	/**
+	 * gets file contents from cache. file is read if not cached, or modified since
+	 * 
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	private static String getFileContents(Path path) throws IOException {
+		String key = path.toAbsolutePath().toString();
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		long modified = attributes.lastModifiedTime().toMillis();
+
+		XmlFile file = xmlFiles.get(key);
+		if (file != null && file.modifiedMillis == modified && file.size == attributes.size())
+			return file.contents;
+
+		file = new XmlFile(new String(Files.readAllBytes(path)), modified, attributes.size());
+		xmlFiles.put(key, file);
+		return file.contents;
+	}
+
+	/**
+	 * gets document builder of current thread, reset for reuse
+	 * 
+	 * @param builders
+	 * @return
+	 */
+	private static DocumentBuilder getDocumentBuilder(ThreadLocal<DocumentBuilder> builders) {
+		DocumentBuilder builder = builders.get();
+		builder.reset();
+		return builder;
+	}
+
+	private static DocumentBuilder newDocumentBuilder(boolean isNamespaceAware) {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(isNamespaceAware);
+			return factory.newDocumentBuilder();
+		} catch (ParserConfigurationException e) {
+			throw new RuntimeException("Could not create xml document builder", e);
+		}
+	}
+
+	/**
+	 * gets compiled xpath expression of current thread, compiles xpath if not cached
+	 * 
+	 * @param xpath
+	 * @return
+	 * @throws XPathExpressionException
+	 */
+	public static XPathExpression compileXpath(String xpath) throws XPathExpressionException {
+		Map<String, XPathExpression> expressions = xpathExpressions.get();
+		XPathExpression expression = expressions.get(xpath);
+		if (expression != null)
+			return expression;
+
+		expression = xpathObject.get().compile(xpath);
+		if (expressions.size() >= MAX_CACHED_XPATHS)
+			expressions.clear();
+		expressions.put(xpath, expression);
+		return expression;
+	}
+
 	/**
 	 * Get text value of the node specified by xpath
 	 * 
@@ -151,8 +265,7 @@ public class XmlHelper {
 	public static NodeList getNodeList(String xpathString, String xmlString) {
 		try {
 			Document doc = convertXmlStringToDocument(xmlString);
-			XPath xpath = XPathFactory.newInstance().newXPath();
-			NodeList nodeList = (NodeList) xpath.evaluate(xpathString, doc, XPathConstants.NODESET);
+			NodeList nodeList = (NodeList) compileXpath(xpathString).evaluate(doc, XPathConstants.NODESET);
 
 			if (nodeList == null || nodeList.getLength() == 0) {
 				TestLog.ConsoleLog("No node found for xpath value: {0}", xpathString);
@@ -197,14 +310,9 @@ public class XmlHelper {
 		// convert xml string to doc
 		Document doc = convertXmlStringToDocument(xml);
 
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-
-		// Create XPath object from XPathFactory
-		XPath xpathObject = xPathFactory.newXPath();
-
 		try {
-			// Compile the XPath expression for getting all brands
-			XPathExpression xPathEnvelopeExpr = xpathObject.compile(xpath);
+			// compiled xpath expression is reused per thread
+			XPathExpression xPathEnvelopeExpr = compileXpath(xpath);
 
 			Object result = xPathEnvelopeExpr.evaluate(doc, XPathConstants.NODESET);
 
@@ -403,24 +511,8 @@ public class XmlHelper {
 	 */
 	public static boolean isValidXmlString(String xmlString) {
 		try {
-			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-			dbFactory.setValidating(false);
-			dbFactory.setSchema(null);
-
-			DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-			dBuilder.setErrorHandler(new ErrorHandler() {
-				@Override
-				public void warning(SAXParseException exception) throws SAXException {
-				}
-
-				@Override
-				public void error(SAXParseException exception) throws SAXException {
-				}
-
-				@Override
-				public void fatalError(SAXParseException exception) throws SAXException {
-				}
-			});
+			DocumentBuilder dBuilder = getDocumentBuilder(documentBuilder);
+			dBuilder.setErrorHandler(SILENT_ERROR_HANDLER);
 			dBuilder.parse(new InputSource(new StringReader(xmlString)));
 			return true;
 		} catch (Exception e) {
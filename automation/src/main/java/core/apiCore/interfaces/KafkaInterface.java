@@ -1,8 +1,5 @@
 package core.apiCore.interfaces;
 
-import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -10,19 +7,17 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.serialization.StringSerializer;
 
 import core.apiCore.helpers.DataHelper;
+import core.apiCore.helpers.KafkaConsumerHelper;
+import core.apiCore.helpers.KafkaProducerHelper;
 import core.apiCore.helpers.MessageQueueHelper;
+import core.helpers.Helper;
 import core.support.configReader.Config;
 import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
-import core.support.objects.MessageObject;
 import core.support.objects.MessageObject.messageType;
 import core.support.objects.ServiceObject;
 import core.support.objects.TestObject;
@@ -40,6 +35,9 @@ public class KafkaInterface {
 	public static final String KAFKA_GROUP_ID = "kafka.group.id";
 	public static final String KAFKA_TIMEOUT_SECONDS = "kafka.timeout.seconds";
 	public static final String KAFKA_MESSAGE_ID_PREFIX = "kafka.msgId.prefix";
+	public static final String KAFKA_PRODUCER_LINGER_MS = "kafka.producer.linger.ms";
+	public static final String KAFKA_PRODUCER_BATCH_SIZE = "kafka.producer.batch.size";
+	public static final String KAFKA_PRODUCER_ASYNC = "kafka.producer.async";
 	public static Map<ConsumerRecord<String, String>, Boolean> outboundMessages = new ConcurrentHashMap<ConsumerRecord<String, String>, Boolean>();
 
 	/**
@@ -62,11 +60,21 @@ public class KafkaInterface {
 		String messageId = MessageQueueHelper.generateMessageId(serviceObject,
 				Config.getValue(KAFKA_MESSAGE_ID_PREFIX));
 
+		// acknowledgments left on this thread by an aborted test are not awaited
+		KafkaProducerHelper.clearPendingAcks();
+
 		// send message
 		sendKafkaMessage(serviceObject, messageId);
 
-		// receive messages
-		MessageQueueHelper.receiveAndValidateMessages(serviceObject, messageId, messageType.KAFKA);
+		// receive messages. in async mode, the message is sent in a batch while the test waits for responses
+		List<String> ackErrors;
+		try {
+			MessageQueueHelper.receiveAndValidateMessages(serviceObject, messageId, messageType.KAFKA);
+		} finally {
+			// wait for send acknowledgment if sent in async mode
+			ackErrors = KafkaProducerHelper.awaitPendingAcks();
+		}
+		Helper.assertTrue("kafka message was not acknowledged: " + String.join(", ", ackErrors), ackErrors.isEmpty());
 	}
 
 	/**
@@ -80,8 +88,6 @@ public class KafkaInterface {
 		if (serviceObject.getRequestBody().isEmpty())
 			return;
 
-		KafkaProducer<String, String> producer = null;
-
 		String messageBody = serviceObject.getRequestBody();
 		try {
 
@@ -92,29 +98,31 @@ public class KafkaInterface {
 			properties.put("value.serializer", StringSerializer.class);
 			properties.put("retries", "3");
 
-			producer = new KafkaProducer<String, String>(properties);
+			// batching options. default kafka values if not set
+			if (!Config.getValue(KAFKA_PRODUCER_LINGER_MS).isEmpty())
+				properties.put("linger.ms", Config.getValue(KAFKA_PRODUCER_LINGER_MS));
+			if (!Config.getValue(KAFKA_PRODUCER_BATCH_SIZE).isEmpty())
+				properties.put("batch.size", Config.getValue(KAFKA_PRODUCER_BATCH_SIZE));
 
 			final ProducerRecord<String, String> record = new ProducerRecord<>(Config.getValue(KFAKA_TOPIC),
 					messageId.toString(), messageBody);
 
-			producer.send(record).get();
+			// producer is shared across tests and closed at end of suite
+			boolean isAsync = Config.getBooleanValue(KAFKA_PRODUCER_ASYNC);
+			KafkaProducerHelper.send(properties, record, isAsync);
 
 			TestLog.logPass("sent messageId : " + messageId + "\n message : " + messageBody);
 
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
-
-		producer.close();
 	}
 
 	/**
-	 * gets message from outbound queue Adds messages to ouboutMessage hashmap
-	 * 
-	 * @param receiver
-	 * @return
+	 * starts background consumer for outbound topic if not running. background
+	 * consumer adds received messages to outbound message store
+	 * tests wait on the message store for new messages
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public static void getOutboundMessages() {
 		Properties props = new Properties();
 		props.put("bootstrap.servers", Config.getValue(KAFKA_SERVER_URL));
@@ -134,43 +142,16 @@ public class KafkaInterface {
 		if (!outboundTopic.isEmpty())
 			topic = outboundTopic;
 
-		KafkaConsumer consumer = new KafkaConsumer(props);
-		consumer.subscribe(Collections.singletonList(topic));
-
-		final int giveUp = 5;
-		int noRecordsCount = 0;
-		ConsumerRecords<String, String> consumerRecords = null;
-
-		do {
-			// TestLog.ConsoleLog("attempt: " + noRecordsCount);
-			consumerRecords = consumer.poll(Duration.ofMillis(3000));
-
-			if (consumerRecords.count() == 0) {
-				noRecordsCount++;
-				continue;
-			}
-
-			// add received message on this thread to outboundMessages
-			consumerRecords.forEach(record -> {
-
-				List<String> headers = new ArrayList<String>();
-				for (Header header : record.headers()) {
-					headers.add(header.value().toString());
-				}
-
-				MessageObject message = new MessageObject().withMessageType(messageType.KAFKA)
-						.withMessageId(record.key()).withMessage(record.value()).withTopic(record.topic())
-						.withHeader(headers);
-
-				TestLog.logPass("Received messageId '" + message.getMessageId() + "\n with message content: "
-						+ message.getMessage());
-				MessageObject.outboundMessages.put(message, true);
-			});
-			TestLog.logPass("global message size in outbound list: " + outboundMessages.size());
-			consumer.commitAsync();
-		} while (consumerRecords.isEmpty() && noRecordsCount < giveUp);
+		// consumer is shared across tests and kept open until end of suite
+		KafkaConsumerHelper.startConsumer(props, topic);
+	}
 
-		consumer.close();
+	/**
+	 * closes shared producers and stops background consumers. called at end of suite
+	 */
+	public static void closeConnection() {
+		KafkaProducerHelper.closeAllProducers();
+		KafkaConsumerHelper.stopAllConsumers();
 	}
 
 	public static void evaluateOption(ServiceObject serviceObject) {
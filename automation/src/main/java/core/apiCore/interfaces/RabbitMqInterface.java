@@ -8,17 +8,14 @@ import org.apache.commons.lang.StringUtils;
 
 import com.rabbitmq.client.AMQP.BasicProperties;
 import com.rabbitmq.client.Channel;
-import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
-import com.rabbitmq.client.GetResponse;
 
 import core.apiCore.helpers.DataHelper;
 import core.apiCore.helpers.MessageQueueHelper;
-import core.helpers.Helper;
+import core.apiCore.helpers.RabbitMqHelper;
 import core.support.configReader.Config;
 import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
-import core.support.objects.MessageObject;
 import core.support.objects.MessageObject.messageType;
 import core.support.objects.ServiceObject;
 import core.support.objects.TestObject;
@@ -44,9 +41,9 @@ public class RabbitMqInterface {
 	public static final String RABBIT_MQ_DECLARE_QUEUE = "rabbitMQ.queue.declare";
 
 	public static final String RABBIT_MQ_MESSAGE_ID_PREFIX = "rabbitMQ.msgId.prefix";
+	public static final String RABBIT_MQ_CONSUMER_PREFETCH = "rabbitMQ.consumer.prefetch";
 
-	public static Connection connection = null;
-	public static Channel channel;
+	private static final int DEFAULT_CONSUMER_PREFETCH = 50;
 
 	/**
 	 * interface for database calls
@@ -79,11 +76,12 @@ public class RabbitMqInterface {
 	}
 
 	/**
+	 * connects to rabbitMq once. connection is shared, each test thread uses its own channel
 	 * 
 	 * @throws Exception
 	 */
-	public synchronized static void connectRabbitMq(ServiceObject serviceObject) {
-		if (channel == null) {
+	public static void connectRabbitMq(ServiceObject serviceObject) {
+		if (!RabbitMqHelper.isConnected()) {
 			try {
 				ConnectionFactory factory = new ConnectionFactory();
 				int port = Config.getIntValue(RABBIT_MQ_PORT);
@@ -101,9 +99,7 @@ public class RabbitMqInterface {
 				if (!virtualHost.isEmpty())
 					factory.setVirtualHost(Config.getValue(RABBIT_MQ_VIRTUAL_HOST));
 
-				connection = factory.newConnection();
-				channel = connection.createChannel();
-				Helper.waitForSeconds(1);
+				RabbitMqHelper.connect(factory);
 			} catch (Exception e) {
 				e.printStackTrace();
 				TestLog.ConsoleLog("Connection failed: " + e.getMessage());
@@ -129,8 +125,10 @@ public class RabbitMqInterface {
 		String exchangeType = Config.getValue(RABBIT_MQ_EXCHANGE_TYPE);
 
 		try {
+			Channel channel = RabbitMqHelper.getChannel();
 			if (!exchangeType.isEmpty())
-				channel.exchangeDeclare(exchange, exchangeType);
+				RabbitMqHelper.declareOnce("exchange:" + exchange + ":" + exchangeType,
+						c -> c.exchangeDeclare(exchange, exchangeType));
 
 			channel.basicPublish(exchange, queueName, props, serviceObject.getRequestBody().getBytes());
 		} catch (Exception e) {
@@ -233,22 +231,17 @@ public class RabbitMqInterface {
 	}
 
 	/**
-	 * close connection
+	 * close consumers, channels and connection
 	 */
 	public static void closeConnection() {
-		try {
-			channel.close();
-			connection.close();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		RabbitMqHelper.close();
 	}
 
 	/**
-	 * gets message from outbound queue Adds messages to ouboutMessage hashmap
+	 * starts push based consumer for outbound queue if not consuming
+	 * consumer adds messages to outbound message store
+	 * queue and exchange declarations run once per queue and exchange
 	 * 
-	 * @param receiver
-	 * @return
 	 * @throws Exception
 	 */
 	public static void getOutboundMessages() throws Exception {
@@ -261,8 +254,10 @@ public class RabbitMqInterface {
 		if (!outboundQueue.isEmpty())
 			queueName = outboundQueue;
 
+		final String queue = queueName;
 		if (isDeclareQueue)
-			channel.queueDeclare(queueName, queueDurable, false, false, null);
+			RabbitMqHelper.declareOnce("queue:" + queue + ":" + queueDurable,
+					c -> c.queueDeclare(queue, queueDurable, false, false, null));
 
 		String exchangeName = Config.getValue(RABBIT_MQ_EXCHANGE);
 		String exchangeOutboundName = Config.getValue(RABBIT_MQ_OUTBOUND_EXCHANGE);
@@ -272,41 +267,17 @@ public class RabbitMqInterface {
 		if (!exchangeOutboundName.isEmpty())
 			exchangeName = exchangeOutboundName;
 
+		final String exchange = exchangeName;
 		if (!exchangeType.isEmpty())
-			channel.exchangeDeclare(exchangeName, exchangeType);
+			RabbitMqHelper.declareOnce("exchange:" + exchange + ":" + exchangeType,
+					c -> c.exchangeDeclare(exchange, exchangeType));
 		if (!exchangeName.isEmpty())
-			channel.queueBind(queueName, exchangeName, "");
-		
-		// get messages in batches
-		getBatchMessages(queueName, 10);
-	}
-	
-	/**
-	 * attempt to get a number of messages from the queue
-	 * @param queueName
-	 * @param maxMessages
-	 * @throws Exception
-	 */
-	public static void getBatchMessages(String queueName, int maxMessages) throws Exception {
-		int currentMessageCount = 0;
-		do {
-			GetResponse delivery = channel.basicGet(queueName, true);
-	
-			if (delivery != null) {
-				String messageString = new String(delivery.getBody(), "UTF-8");
-	
-				MessageObject message = new MessageObject().withMessageType(messageType.RABBITMQ)
-						.withMessageId(delivery.getProps().getMessageId())
-						.withCorrelationId(delivery.getProps().getCorrelationId()).withMessage(messageString);
-	
-				if (message != null) {
-					TestLog.logPass(
-							"Received message with Id: " + message.getMessageId() + " message: " + message.getMessage());
-					MessageObject.outboundMessages.put(message, true);
-				}
-			}else
-				break;
-			currentMessageCount++;
-		}while(currentMessageCount < maxMessages);
+			RabbitMqHelper.declareOnce("bind:" + queue + ":" + exchange, c -> c.queueBind(queue, exchange, ""));
+
+		// consume messages as they arrive
+		int prefetch = Config.getIntValue(RABBIT_MQ_CONSUMER_PREFETCH);
+		if (prefetch < 0)
+			prefetch = DEFAULT_CONSUMER_PREFETCH;
+		RabbitMqHelper.startConsumer(queue, prefetch);
 	}
 }
\ No newline at end of file
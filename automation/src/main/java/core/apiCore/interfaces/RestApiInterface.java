@@ -16,13 +16,16 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 
 import core.apiCore.ServiceManager;
+import core.apiCore.helpers.BackoffPoller;
 import core.apiCore.helpers.DataHelper;
 import core.apiCore.helpers.DataHelper.JSON_COMMAND;
 import core.apiCore.helpers.JsonHelper;
+import core.apiCore.helpers.JsonStreamValidator;
 import core.helpers.Helper;
 import core.helpers.StopWatchHelper;
 import core.helpers.UtilityHelper;
 import core.support.configReader.Config;
+import core.support.configReader.ConfigKey;
 import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
 import core.support.objects.ServiceObject;
@@ -55,11 +58,36 @@ public class RestApiInterface {
 
 	public static final String API_PARAMETER_ENCODING = "api.encoding.parameter";
 	public static final String API_USE_RELAXED_HTTPS_VALIDATION = "api.useRelaxedHTTPSValidation";
+	public static final String API_RESPONSE_STREAMING_ENABLED = "api.response.streaming.isEnabled";
+
 
 	
 
 	public static final String API_BASE_URL = "api.uriPath";
 
+	// typed keys for config values read per request
+	private static final ConfigKey<Boolean> PARAMETER_ENCODING_KEY = ConfigKey.booleanKey(API_PARAMETER_ENCODING);
+	private static final ConfigKey<Boolean> RESPONSE_STREAMING_KEY = ConfigKey.booleanKey(API_RESPONSE_STREAMING_ENABLED);
+	private static final ConfigKey<Boolean> PAGINATION_VALIDATION_KEY = ConfigKey
+			.booleanKey(API_TIMEOUT_PAGINATION_VALIDATION_ENABLED);
+	private static final ConfigKey<Integer> RETRY_COUNT_KEY = ConfigKey.intKey(ServiceManager.SERVICE_RETRY_COUNT);
+	private static final ConfigKey<Boolean> TIMEOUT_VALIDATION_KEY = ConfigKey
+			.booleanKey(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED);
+	private static final ConfigKey<Integer> TIMEOUT_VALIDATION_SECONDS_KEY = ConfigKey
+			.intKey(ServiceManager.SERVICE_TIMEOUT_VALIDATION_SECONDS);
+	private static final ConfigKey<Integer> RESPONSE_TIMEOUT_SECONDS_KEY = ConfigKey
+			.intKey(ServiceManager.SERVICE_RESPONSE_TIMEOUT_SECONDS);
+	private static final ConfigKey<String> PAGINATION_STOP_CRITERIA_KEY = ConfigKey.stringKey(API_PAGINATION_STOP_CRITERIA);
+	private static final ConfigKey<Integer> PAGINATION_MAX_PAGES_KEY = ConfigKey.intKey(API_PAGINATION_MAX_PAGES);
+	private static final ConfigKey<String> PAGINATION_PAGES_FROM_KEY = ConfigKey.stringKey(API_PAGINATION_PAGES_FROM);
+	private static final ConfigKey<String> PAGINATION_INCREMENT_KEY = ConfigKey.stringKey(API_PAGINATION_INCREMENT);
+	private static final ConfigKey<String> BASE_URL_KEY = ConfigKey.stringKey(API_BASE_URL);
+	private static final ConfigKey<String> PROXY_HOST_KEY = ConfigKey.stringKey(TestObject.PROXY_HOST);
+	private static final ConfigKey<Integer> PROXY_PORT_KEY = ConfigKey.intKey(TestObject.PROXY_PORT);
+	private static final ConfigKey<String> PROXY_PROTOCOL_KEY = ConfigKey.stringKey(TestObject.PROXY_PROTOCOL);
+	private static final ConfigKey<Boolean> RELAXED_HTTPS_VALIDATION_KEY = ConfigKey
+			.booleanKey(API_USE_RELAXED_HTTPS_VALIDATION);
+
 	/**
 	 * interface for restful API calls
 	 * 
@@ -107,8 +135,8 @@ public class RestApiInterface {
 		// set options
 		evaluateOption(serviceObject);
 		
-		int getRetryCount = Config.getIntValue(ServiceManager.SERVICE_RETRY_COUNT);
-		int getRetryAfterSecond = Config.getIntValue(ServiceManager.SERVICE_RETRY_AFTER_SERCONDS);
+		int getRetryCount = Config.getValue(RETRY_COUNT_KEY);
+		BackoffPoller retryPoller = BackoffPoller.forServiceRetry();
 		
 		// retry test if value set
 		for (int i = 1; i <= getRetryCount + 1; i++) {
@@ -127,8 +155,7 @@ public class RestApiInterface {
 			if (i <= getRetryCount) {
 				TestLog.logPass("Run: " + i + " Failed, attempting another retry... " + (getRetryCount + 1 - i)
 						+ " retry(s) remaining");
-				if (getRetryAfterSecond > 0)
-					Helper.waitForSeconds(getRetryAfterSecond);
+				retryPoller.waitNext();
 			}
 		}
 
@@ -157,7 +184,7 @@ public class RestApiInterface {
 
 		// set options
 		evaluateOption(serviceObject);
-		boolean isValidationTimeout = Config.getBooleanValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED);
+		boolean isValidationTimeout = Config.getValue(TIMEOUT_VALIDATION_KEY);
 
 		// set pagination response validation
 		Config.putValue(API_TIMEOUT_PAGINATION_VALIDATION_ENABLED, isValidationTimeout, false);
@@ -183,7 +210,7 @@ public class RestApiInterface {
 			passedTimeInSeconds = watch.time(TimeUnit.SECONDS);
 
 			// if validation timeout is not enabled, break out of the loop
-			maxRetrySeconds = Config.getIntValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_SECONDS);
+			maxRetrySeconds = Config.getValue(TIMEOUT_VALIDATION_SECONDS_KEY);
 			if (!isValidationTimeout)
 				break;
 
@@ -199,10 +226,10 @@ public class RestApiInterface {
 
 	public static boolean evaluateRequestAndValidatePagination(ServiceObject serviceObject) {
 
-		String criteria = Config.getValue(API_PAGINATION_STOP_CRITERIA);
-		int maxPages = Config.getIntValue(API_PAGINATION_MAX_PAGES);
-		int startingPage = Helper.getIntFromString(Config.getValue(API_PAGINATION_PAGES_FROM));
-		int incrementBy = Helper.getIntFromString(Config.getValue(API_PAGINATION_INCREMENT));
+		String criteria = Config.getValue(PAGINATION_STOP_CRITERIA_KEY);
+		int maxPages = Config.getValue(PAGINATION_MAX_PAGES_KEY);
+		int startingPage = Helper.getIntFromString(Config.getValue(PAGINATION_PAGES_FROM_KEY));
+		int incrementBy = Helper.getIntFromString(Config.getValue(PAGINATION_INCREMENT_KEY));
 
 		String uri = serviceObject.getUriPath();
 		boolean isCriteriaSuccess = false;
@@ -274,6 +301,7 @@ public class RestApiInterface {
 
 		int maxRetrySeconds = -1;
 		int currentRunCount = 0;
+		BackoffPoller poller = BackoffPoller.forValidationRetry();
 
 		do {
 			currentRunCount++;
@@ -303,13 +331,13 @@ public class RestApiInterface {
 			passedTimeInSeconds = watch.time(TimeUnit.SECONDS);
 
 			// if validation timeout is not enabled, break out of the loop
-			boolean isValidationTimeout = Config.getBooleanValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED);
-			maxRetrySeconds = Config.getIntValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_SECONDS);
+			boolean isValidationTimeout = Config.getValue(TIMEOUT_VALIDATION_KEY);
+			maxRetrySeconds = Config.getValue(TIMEOUT_VALIDATION_SECONDS_KEY);
 			if (!isValidationTimeout)
 				break;
 
 			// log errors if exist
-			logTestRunError(currentRunCount, serviceObject.getErrorMessages());
+			logTestRunError(currentRunCount, serviceObject.getErrorMessages(), poller);
 
 		} while (!serviceObject.getErrorMessages().isEmpty() && passedTimeInSeconds < maxRetrySeconds);
 
@@ -320,17 +348,12 @@ public class RestApiInterface {
 		return serviceObject;
 	}
 
-	private static void logTestRunError(int currentRunCount, List<String> errorMessages) {
-		int waitTime = Config.getIntValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_SECONDS);
-		double waitMultiplier = Config.getDoubleValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MULTIPLIER);
-		if(waitMultiplier == -1) waitMultiplier = 1;
-
+	private static void logTestRunError(int currentRunCount, List<String> errorMessages, BackoffPoller poller) {
 		String errors = StringUtils.join(errorMessages, "\n error: ");
 		if(!errors.isEmpty())
 			TestLog.ConsoleLog("attempt failed with message: " + ServiceObject.normalizeLog(errors));
 		if (currentRunCount > 1) {
-			double waitTimeSeconds = waitTime * Math.pow(waitMultiplier, currentRunCount - 1);
-			Helper.waitForSeconds(waitTimeSeconds);
+			double waitTimeSeconds = poller.waitNext() / 1000.0;
 			TestLog.ConsoleLog("attempt #" + (currentRunCount) + " waiting seconds: " + waitTimeSeconds);
 		}
 	}
@@ -356,7 +379,7 @@ public class RestApiInterface {
 		if (serviceObject.getUriPath().startsWith("http")) {
 			url = serviceObject.getUriPath();
 		} else {
-			url = Helper.stringRemoveLines(Config.getValue(API_BASE_URL)) + serviceObject.getUriPath();
+			url = Helper.stringRemoveLines(Config.getValue(BASE_URL_KEY)) + serviceObject.getUriPath();
 		}
 		// keep track of full URL
 		serviceObject.withUriPath(url);
@@ -375,7 +398,7 @@ public class RestApiInterface {
 	 * set connection timeout in milliseconds
 	 */
 	public static void setTimeout() {
-		int connectTimeout = Config.getIntValue(ServiceManager.SERVICE_RESPONSE_TIMEOUT_SECONDS);
+		int connectTimeout = Config.getValue(RESPONSE_TIMEOUT_SECONDS_KEY);
 		if (connectTimeout == -1)
 			connectTimeout = 60; // connect timeout defaults to 60 seconds
 
@@ -394,12 +417,12 @@ public class RestApiInterface {
 	 */
 	public static void setProxy() {
 
-		String host = Config.getValue(TestObject.PROXY_HOST);
-		int port = Config.getIntValue(TestObject.PROXY_PORT);
-		String proxyProtocal = Config.getValue(TestObject.PROXY_PROTOCOL);
+		String host = Config.getValue(PROXY_HOST_KEY);
+		int port = Config.getValue(PROXY_PORT_KEY);
+		String proxyProtocal = Config.getValue(PROXY_PROTOCOL_KEY);
 		boolean isProxyEnabled = false;
 		
-		if(Config.getBooleanValue(API_USE_RELAXED_HTTPS_VALIDATION))
+		if(Config.getValue(RELAXED_HTTPS_VALIDATION_KEY))
 			RestAssured.useRelaxedHTTPSValidation();
 
 		// detect if proxy is required or not
@@ -434,28 +457,52 @@ public class RestApiInterface {
 			return errorMessages;
 		}
 
-		// saves response values to config object
-		saveOutBoundValues(serviceObject);
+		// response body is not read if the response is streamed
+		boolean isStreamed = isResponseStreamed(serviceObject);
+
+		// saves response values to config object. streamed responses have no output parameters
+		if (!isStreamed)
+			saveOutBoundValues(serviceObject);
 
 		// validate status code
 		errorMessages.addAll(validateStatusCode(serviceObject.getResponse(), serviceObject));
 
+		// validate json keywords against response stream, without reading the response body into memory
+		if (isStreamed) {
+			String expectedResponse = DataHelper.replaceParameters(serviceObject.getExpectedResponse());
+			errorMessages.addAll(JsonStreamValidator.validate(serviceObject.getResponse().asInputStream(), expectedResponse));
+			return DataHelper.removeEmptyElements(errorMessages);
+		}
+
 		// get response values and validate
-		String responseString = JsonHelper.getResponseValue(serviceObject.getResponse());
-		List<String> responses = new ArrayList<String>();
-		responses.add(responseString);
-		errorMessages.addAll(DataHelper.validateExpectedValues(responses, serviceObject.getExpectedResponse()));
+		errorMessages.addAll(DataHelper.validateExpectedValues(serviceObject.getResponseDocument(), serviceObject.getExpectedResponse()));
 
 		// remove all empty response strings
 		errorMessages = DataHelper.removeEmptyElements(errorMessages);
 		return errorMessages;
 	}
 	
+	/**
+	 * response is streamed if streaming is enabled, and all expected json keywords support streaming
+	 * eg. _VERIFY_JSON_PART_ data.items:nodeSizeGreaterThan(1000); data.items[*].status:allValuesEqualTo(active)
+	 * streamed responses are not logged. tests with output parameters read the response body, and are not streamed
+	 * 
+	 * @param serviceObject
+	 * @return
+	 */
+	public static boolean isResponseStreamed(ServiceObject serviceObject) {
+		if (!Config.getValue(RESPONSE_STREAMING_KEY))
+			return false;
+		if (!serviceObject.getOutputParams().isEmpty())
+			return false;
+		return JsonStreamValidator.isStreamable(serviceObject.getExpectedResponse());
+	}
+
 	public static void saveOutBoundValues(ServiceObject serviceObject) {
 		if (serviceObject.getResponse() == null || serviceObject.getOutputParams().isEmpty())
 			return;
 		// saves response values to config object
-		JsonHelper.saveOutboundJsonParameters(serviceObject.getResponse(), serviceObject.getOutputParams());
+		JsonHelper.saveOutboundJsonParameters(serviceObject.getResponse(), serviceObject.getResponseDocument(), serviceObject.getOutputParams());
 
 	}
 
@@ -591,7 +638,7 @@ public class RestApiInterface {
 					"query parameters are wrong format: " + aURL.getQuery() + ". should be \"key=value&key2=value2\"");
 
 		// if encoding enabled, query parameters will be encoded
-		boolean paramterEncoding = Config.getBooleanValue(API_PARAMETER_ENCODING);
+		boolean paramterEncoding = Config.getValue(PARAMETER_ENCODING_KEY);
 		
 		// disable rest assured build in encoding. we will use java utils version
 		request = request.urlEncodingEnabled(false);
@@ -685,7 +732,7 @@ public class RestApiInterface {
 				break;
 			case ServiceManager.OPTION_WAIT_FOR_RESPONSE:
 				// disable per page wait for response if pagination validation is enabled
-				if (Config.getBooleanValue(API_TIMEOUT_PAGINATION_VALIDATION_ENABLED))
+				if (Config.getValue(PAGINATION_VALIDATION_KEY))
 					Config.putValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED, false, false);
 				else
 					Config.putValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED, true, false);
@@ -807,7 +854,11 @@ public class RestApiInterface {
 			serviceObject.withErrorMessages(errors);
 		}
 
-		if (response != null) {
+		if (response != null && isResponseStreamed(serviceObject)) {
+			TestLog.logPass("response code: " + response.getStatusCode() + ". status: " + response.getStatusLine() );
+			TestLog.logPass("response message: streamed for validation, not logged");
+			serviceObject.withResponse(response);
+		} else if (response != null) {
 			TestLog.logPass("response code: " + response.getStatusCode() + ". status: " + response.getStatusLine() );
 			TestLog.logPass("response message: " + ServiceObject.normalizeLog(response.getBody().asString()));
 			serviceObject.withResponse(response.then().extract().response());
@@ -827,7 +878,7 @@ public class RestApiInterface {
 	 */
 	public static URL getBaseUrl() {
 		URL baseUrl = null;
-		String baseUrlValue = Config.getValue(API_BASE_URL);
+		String baseUrlValue = Config.getValue(BASE_URL_KEY);
 		try {
 			baseUrl = new URL(baseUrlValue);
 		} catch (MalformedURLException e) {
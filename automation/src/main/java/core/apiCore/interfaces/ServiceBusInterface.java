@@ -7,29 +7,19 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang.StringUtils;
 
-import com.microsoft.azure.servicebus.ExceptionPhase;
-import com.microsoft.azure.servicebus.IMessage;
-import com.microsoft.azure.servicebus.IMessageHandler;
+import com.microsoft.azure.servicebus.IMessageSender;
 import com.microsoft.azure.servicebus.Message;
-import com.microsoft.azure.servicebus.MessageHandlerOptions;
-import com.microsoft.azure.servicebus.QueueClient;
-import com.microsoft.azure.servicebus.ReceiveMode;
-import com.microsoft.azure.servicebus.SubscriptionClient;
-import com.microsoft.azure.servicebus.TopicClient;
-import com.microsoft.azure.servicebus.primitives.ConnectionStringBuilder;
-import com.microsoft.azure.servicebus.primitives.ServiceBusException;
-import com.rabbitmq.client.Channel;
-import com.rabbitmq.client.Connection;
 
 import core.apiCore.helpers.DataHelper;
 import core.apiCore.helpers.MessageQueueHelper;
+import core.apiCore.helpers.ServiceBusHelper;
 import core.support.configReader.Config;
 import core.support.logger.TestLog;
 import core.support.objects.KeyValue;
-import core.support.objects.MessageObject;
 import core.support.objects.MessageObject.messageType;
 import core.support.objects.ServiceObject;
 import core.support.objects.TestObject;
+import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
 
 /**
  * @author ehsan.matean
@@ -44,9 +34,8 @@ public class ServiceBusInterface {
 	public static final String SERVICEBUS_OUTBOUND_TOPIC = "servicebus.outbound.topic";
 	public static final String SERVICEBUS_HOST = "servicebus.host";
 	public static final String SERVICEBUS_MESSAGE_ID_PREFIX = "servicebus.msgId.prefix";
-
-	public static Connection connection = null;
-	public static Channel channel;
+	public static final String SERVICEBUS_RECEIVE_CONCURRENCY = "servicebus.receive.concurrency";
+	public static final String SERVICEBUS_PREFETCH_COUNT = "servicebus.prefetch.count";
 
 	/**
 	 * interface for database calls
@@ -76,54 +65,27 @@ public class ServiceBusInterface {
 	}
 
 	/**
-	 * send rabbitMq message
+	 * send service bus message to queue, or topic if queue is not set
+	 * senders are shared across tests. see ServiceBusHelper
 	 * 
 	 * @param apiObject
-	 * @throws ServiceBusException
-	 * @throws InterruptedException
 	 */
-	public static void sendServiceBusMessage(ServiceObject serviceObject, String messageId)
-			throws InterruptedException, ServiceBusException {
-		TestLog.ConsoleLog("rabbitMq request body: " + serviceObject.getRequestBody());
-
-		// Create a QueueClient instance and then asynchronously send messages.
-		// Close the sender once the send operation is complete.
+	public static void sendServiceBusMessage(ServiceObject serviceObject, String messageId) {
+		TestLog.ConsoleLog("service bus request body: " + serviceObject.getRequestBody());
 
 		String connectionString = Config.getValue(SERVICEBUS_CONNECTION_STR);
 		String topic = Config.getValue(SERVICEBUS_TOPIC);
 		String queue = Config.getValue(SERVICEBUS_QUEUE);
 
-		QueueClient sendQueueClient = new QueueClient(new ConnectionStringBuilder(connectionString, queue),
-				ReceiveMode.PEEKLOCK);
-		TopicClient sendClient = new TopicClient(new ConnectionStringBuilder(connectionString, topic));
-
 		if (!queue.isEmpty())
-			sendMessagesAsync(serviceObject, messageId, sendClient).thenRunAsync(() -> sendQueueClient.closeAsync());
+			sendMessagesAsync(serviceObject, messageId, ServiceBusHelper.getSender(connectionString, queue));
 		else if (!topic.isEmpty())
-			sendMessagesAsync(serviceObject, messageId, sendClient).thenRunAsync(() -> sendClient.closeAsync());
-	}
-
-	@SuppressWarnings("rawtypes")
-	static CompletableFuture<Void> sendQeueMessagesAsync(ServiceObject serviceObject, String messageId,
-			QueueClient sendClient) {
-
-		List<CompletableFuture> tasks = new ArrayList<>();
-		Message message = new Message(serviceObject.getRequestBody().getBytes());
-		message.setContentType(serviceObject.getContentType());
-		message.setLabel(messageId);
-		message.setMessageId(messageId);
-		message.setTimeToLive(Duration.ofMinutes(2));
-		TestLog.logPass("Message sending: Id = " + message.getMessageId() + "\n message: " + message);
-		tasks.add(sendClient.sendAsync(message).thenRunAsync(() -> {
-			System.out.printf("Message acknowledged: Id = " + message.getMessageId());
-		}));
-
-		return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+			sendMessagesAsync(serviceObject, messageId, ServiceBusHelper.getSender(connectionString, topic));
 	}
 
 	@SuppressWarnings("rawtypes")
 	static CompletableFuture<Void> sendMessagesAsync(ServiceObject serviceObject, String messageId,
-			TopicClient sendClient) {
+			IMessageSender sendClient) {
 
 		List<CompletableFuture> tasks = new ArrayList<>();
 		Message message = new Message(serviceObject.getRequestBody().getBytes());
@@ -200,22 +162,16 @@ public class ServiceBusInterface {
 	}
 
 	/**
-	 * close connection
+	 * close shared senders and subscription clients
 	 */
 	public static void closeConnection() {
-		try {
-			channel.close();
-			connection.close();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		ServiceBusHelper.closeAllClients();
 	}
 
 	/**
-	 * gets message from outbound queue Adds messages to ouboutMessage hashmap
+	 * registers message handler on outbound subscription if not registered
+	 * handler adds messages to outbound message store
 	 * 
-	 * @param receiver
-	 * @return
 	 * @throws Exception
 	 */
 	public static void getOutboundMessages() throws Exception {
@@ -228,44 +184,13 @@ public class ServiceBusInterface {
 		if (!outboundTopic.isEmpty())
 			topic = outboundTopic;
 
-		String entityPath = topic + "/subscriptions/" + host;
-		SubscriptionClient subscription1Client = new SubscriptionClient(
-				new ConnectionStringBuilder(connectionString, entityPath), ReceiveMode.PEEKLOCK);
-
-		registerMessageHandlerOnClient(subscription1Client);
-	}
-
-	@SuppressWarnings("deprecation")
-	static void registerMessageHandlerOnClient(SubscriptionClient receiveClient) throws Exception {
-
-		// register the RegisterMessageHandler callback
-		IMessageHandler messageHandler = new IMessageHandler() {
-			// callback invoked when the message handler loop has obtained a message
-			public CompletableFuture<Void> onMessageAsync(IMessage message) {
-
-				MessageObject messageObject = new MessageObject().withMessageType(messageType.SERVICEBUS)
-						.withMessageId(message.getMessageId()).withCorrelationId(message.getCorrelationId())
-						.withMessage(message.getMessageBody().getValueData().toString()).withLabel(message.getLabel());
-
-				TestLog.logPass("Received messageId '" + message.getMessageId() + "\n with message content: "
-						+ message.getMessageBody().getValueData());
-				MessageObject.outboundMessages.put(messageObject, true);
-
-				return receiveClient.completeAsync(message.getLockToken());
-			}
-
-			@Override
-			public void notifyException(Throwable throwable, ExceptionPhase exceptionPhase) {
-				System.out.printf(exceptionPhase + "-" + throwable.getMessage());
-			}
-
-		};
-
-		receiveClient.registerMessageHandler(messageHandler,
-				// callback invoked when the message handler has an exception to report
-				// 1 concurrent call, messages are auto-completed, auto-renew duration
-				new MessageHandlerOptions(1, false, Duration.ofMinutes(1)));
+		// concurrent handler calls default to parallel test count
+		int concurrency = Config.getIntValue(SERVICEBUS_RECEIVE_CONCURRENCY);
+		if (concurrency < 1)
+			concurrency = CrossPlatformProperties.getParallelTests();
+		int prefetch = Config.getIntValue(SERVICEBUS_PREFETCH_COUNT);
 
+		String entityPath = topic + "/subscriptions/" + host;
+		ServiceBusHelper.startSubscription(connectionString, entityPath, concurrency, prefetch);
 	}
-
-}
\ No newline at end of file
+}
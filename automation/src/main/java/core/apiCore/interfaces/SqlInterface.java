@@ -1,6 +1,6 @@
 package core.apiCore.interfaces;
 
-import java.sql.DriverManager;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,8 +13,10 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 
 import core.apiCore.ServiceManager;
-import core.apiCore.helpers.ConnectionHelper;
+import core.apiCore.helpers.BackoffPoller;
 import core.apiCore.helpers.DataHelper;
+import core.apiCore.helpers.ForwardOnlyResultSet;
+import core.apiCore.helpers.SqlConnectionPool;
 import core.apiCore.helpers.SqlHelper;
 import core.helpers.Helper;
 import core.helpers.StopWatchHelper;
@@ -67,44 +69,13 @@ public class SqlInterface {
 	}
 
 	/**
-	 * connect to database based on the current database
+	 * initializes connection pool for the current database
+	 * pool size defaults to parallel test count, unless set per database. eg. db.1.pool.size = 5
 	 */
-	public synchronized static void connectDB() {
+	public static void connectDB() {
 
 		DatabaseObject currentDb = (DatabaseObject) Config.getObjectValue(SQL_CURRENT_DATABASE);
-
-		if (currentDb.getConnection() == null) {
-			try {
-
-				// connect through ssh if set in api config
-				ConnectionHelper.sshConnect();
-
-				// Register JDBC driver
-				String SQLDriver = currentDb.getDriver();
-				Class.forName(SQLDriver);
-
-				// connect to db
-				String dbURL = currentDb.getUrl();
-				String dbName = currentDb.getDatabaseName();
-
-				// set database connection info
-				String connectionString = dbURL + "/" + dbName;
-				String dbUserName = currentDb.getUsername();
-				String dbPassword = currentDb.getPassword();
-				TestLog.logPass("db connection: " + connectionString);
-				TestLog.logPass("db username: " + dbUserName);
-				TestLog.logPass("db password: " + dbPassword);
-
-				// conn = DriverManager.getConnection("jdbc:postgresql://localhost:5432/testdb",
-				// "postgres", "123");
-				currentDb.withConnection(DriverManager.getConnection(connectionString, dbUserName, dbPassword));
-				Helper.wait.waitForSeconds(1);
-			} catch (Exception e) {
-				TestLog.logPass("sql connection failed: " + e.getMessage());
-				e.printStackTrace();
-				Helper.assertTrue("sql connection failed", false);
-			}
-		}
+		currentDb.getConnectionPool(CrossPlatformProperties.getParallelTests());
 	}
 
 	public static void evaluateOption(ServiceObject serviceObject) {
@@ -244,6 +215,18 @@ public class SqlInterface {
 		case "password":
 			database.withPassword(value);
 			break;
+		case "pool.size":
+			database.withPoolSize(Helper.getIntFromString(value, true));
+			break;
+		case "pool.idle.seconds":
+			database.withPoolIdleSeconds(Helper.getIntFromString(value, true));
+			break;
+		case "fetch.size":
+			database.withFetchSize(Helper.getIntFromString(value, true));
+			break;
+		case "statement.cache.size":
+			database.withStatementCacheSize(Helper.getIntFromString(value, true));
+			break;
 		default:
 
 		}
@@ -252,13 +235,14 @@ public class SqlInterface {
 	}
 
 	/**
-	 * evaluaes the sql statement
+	 * evaluaes the sql statement on leased connection
 	 * 
 	 * @param serviceObject
+	 * @param connection
 	 * @return
 	 * @throws Exception
 	 */
-	public static ResultSet evaluateDbQuery(ServiceObject serviceObject) throws Exception {
+	public static ResultSet evaluateDbQuery(ServiceObject serviceObject, Connection connection) throws Exception {
 
 		// replace parameters for request body, including template file (json, xml, or
 		// other)
@@ -268,9 +252,18 @@ public class SqlInterface {
 		String sql = serviceObject.getRequestBody();
 		TestLog.logPass("sql statement: " + sql);
 
+		// stream results forward only if validation does not scroll. statement is cached per connection
 		DatabaseObject currentDb = (DatabaseObject) Config.getObjectValue(SQL_CURRENT_DATABASE);
-		PreparedStatement sqlStmt = currentDb.getConnection().prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
-				ResultSet.CONCUR_UPDATABLE);
+		PreparedStatement sqlStmt;
+		if (SqlHelper.isScrollRequired(serviceObject.getOutputParams(), serviceObject.getExpectedResponse())) {
+			sqlStmt = currentDb.getConnectionPool().prepareStatement(connection, sql,
+					ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE);
+		} else {
+			sqlStmt = currentDb.getConnectionPool().prepareStatement(connection, sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			if (currentDb.getFetchSize() > 0)
+				sqlStmt.setFetchSize(currentDb.getFetchSize());
+		}
 
 		// execute And wait for response if expected values are set
 		ResultSet resSet = null;
@@ -312,9 +305,6 @@ public class SqlInterface {
 
 		errorMessages = validateExpectedResponse(serviceObject.getExpectedResponse(), resSet);
 
-		// Clean-up environment
-		resSet.close();
-
 		// remove all empty response strings
 		errorMessages = DataHelper.removeEmptyElements(errorMessages);
 		return errorMessages;
@@ -323,6 +313,7 @@ public class SqlInterface {
 	/**
 	 * executes And waits for response calls the query in each loop does not wait if
 	 * expected or partial expected response are empty
+	 * delay between queries grows with backoff. see service.poll.* config
 	 * 
 	 * @param sqlStmt
 	 * @param serviceObject
@@ -333,24 +324,23 @@ public class SqlInterface {
 			throws SQLException {
 		int timeout = CrossPlatformProperties.getGlobalTimeout();
 		ResultSet resSet;
-		StopWatchHelper watch = StopWatchHelper.start();
-		boolean messageReceived = false;
-		long passedTimeInSeconds = 0;
+		BackoffPoller poller = BackoffPoller.forPolling().withTimeout(timeout * 1000L);
 		do {
 			sqlStmt.execute();
-			resSet = sqlStmt.getResultSet();
+
+			// forward only results are wrapped, rows are counted as they are read
+			resSet = ForwardOnlyResultSet.wrap(sqlStmt.getResultSet());
 
 			// if no response expected, do not wait for response
 			if (serviceObject.getExpectedResponse().isEmpty())
 				return resSet;
 
-			if (resSet.isBeforeFirst()) {
-				messageReceived = true;
+			if (resSet.isBeforeFirst())
 				return resSet;
-			}
-			Helper.wait.waitForSeconds(1);
-			passedTimeInSeconds = watch.time(TimeUnit.SECONDS);
-		} while (!messageReceived && passedTimeInSeconds < timeout);
+
+			// wait with backoff before running the query again
+			poller.waitNext();
+		} while (!poller.isTimedOut());
 
 		return resSet;
 	}
@@ -372,7 +362,7 @@ public class SqlInterface {
 			if (SqlHelper.isValidJson(criterion)) {
 				SqlHelper.validateByJsonBody(criterion, resSet);
 			} else {
-				List<KeyValue> keywords = DataHelper.getValidationMap(expected);
+				List<KeyValue> keywords = DataHelper.getValidationMap(criterion);
 				errorMessages.addAll(SqlHelper.validateSqlKeywords(keywords, resSet));
 			}
 		}
@@ -398,25 +388,33 @@ public class SqlInterface {
 		boolean isValidationTimeout = Config.getBooleanValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_ENABLED);
 		int maxRetrySeconds = Config.getIntValue(ServiceManager.SERVICE_TIMEOUT_VALIDATION_SECONDS);
 		int currentRetryCount = 0;
+		BackoffPoller poller = BackoffPoller.forValidationRetry();
 
-		do {
+		DatabaseObject currentDb = (DatabaseObject) Config.getObjectValue(SQL_CURRENT_DATABASE);
+		SqlConnectionPool pool = currentDb.getConnectionPool(CrossPlatformProperties.getParallelTests());
 
-			// evaluate the sql query
-			resSet = evaluateDbQuery(serviceObject);
+		do {
 
-			// evaluate the response
-			errorMessages = evaluateReponse(serviceObject, resSet);
+			// lease connection for the duration of the query and validation
+			Connection connection = pool.lease();
+			try {
+				// evaluate the sql query
+				resSet = evaluateDbQuery(serviceObject, connection);
+
+				// evaluate the response
+				errorMessages = evaluateReponse(serviceObject, resSet);
+			} finally {
+				// Clean-up environment
+				pool.closeResultSet(connection, resSet);
+				pool.release(connection);
+			}
 
 			// if validation timeout is not enabled, break out of the loop
 			if (!isValidationTimeout)
 				break;
 
 			if (currentRetryCount > 0) {
-				int waitTime = Config.getIntValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_SECONDS);
-				double waitMultiplier = Config.getDoubleValue(ServiceManager.SERVICE_RESPONSE_DELAY_BETWEEN_ATTEMPTS_MULTIPLIER);
-				
-				double waitTimeSeconds = waitTime * Math.pow(waitMultiplier, currentRetryCount - 1);
-				Helper.waitForSeconds(waitTimeSeconds);
+				double waitTimeSeconds = poller.waitNext() / 1000.0;
 				TestLog.ConsoleLog("attempt #" + (currentRetryCount) + " waiting seconds: " + waitTimeSeconds);
 				
 				String errors = StringUtils.join(errorMessages, "\n error: ");
@@ -0,0 +1,173 @@
+package core.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import core.support.configReader.Config;
+import core.support.logger.TestLog;
+import core.uiCore.drivers.AbstractDriver;
+import core.uiCore.webElement.ElementLookup;
+import core.uiCore.webElement.EnhancedBy;
+
+/**
+ * extracts a table or list from the page in a single javascript call
+ * rows and cells are located in the browser, using the locators of the enhanced by objects in order,
+ * and their text and selected attributes are returned together
+ * only available for web drivers and css, xpath, id, name and class locators.
+ * callers fall back to per element calls when extraction is not available. eg. appium, windows apps
+ */
+public class DomExtractor {
+
+	public static final String BULK_EXTRACTION_ENABLED = "web.bulkExtraction.isEnabled";
+
+	// text value matches EnhancedWebElement.getText: text, textContent, Then value
+	private static final String EXTRACT_SCRIPT = ElementLookup.FIND_FUNCTIONS
+			+ "var rowLocators = arguments[0], cellLocators = arguments[1], maxRows = arguments[2], attributes = arguments[3];"
+			+ "function text(e) {"
+			+ "  var value = e.innerText;"
+			+ "  if (!value) value = e.textContent;"
+			+ "  if (!value) value = e.value;"
+			+ "  return value == null ? '' : String(value).trim();"
+			+ "}"
+			+ "var rows = find(rowLocators, document);"
+			+ "if (maxRows > -1 && rows.length > maxRows) rows = rows.slice(0, maxRows);"
+			+ "var result = { text: [], attributes: {} };"
+			+ "for (var a = 0; a < attributes.length; a++) result.attributes[attributes[a]] = [];"
+			+ "for (var r = 0; r < rows.length; r++) {"
+			+ "  var cells = cellLocators.length > 0 ? find(cellLocators, rows[r]) : [rows[r]];"
+			+ "  var rowText = [], rowAttributes = {};"
+			+ "  for (var a = 0; a < attributes.length; a++) rowAttributes[attributes[a]] = [];"
+			+ "  for (var c = 0; c < cells.length; c++) {"
+			+ "    rowText.push(text(cells[c]));"
+			+ "    for (var a = 0; a < attributes.length; a++) {"
+			+ "      var attribute = cells[c].getAttribute(attributes[a]);"
+			+ "      rowAttributes[attributes[a]].push(attribute == null ? '' : attribute);"
+			+ "    }"
+			+ "  }"
+			+ "  result.text.push(rowText);"
+			+ "  for (var a = 0; a < attributes.length; a++) result.attributes[attributes[a]].push(rowAttributes[attributes[a]]);"
+			+ "}"
+			+ "return result;";
+
+	/**
+	 * extracted table. text and attribute values by row, Then cell
+	 * for lists, each row has a single cell
+	 */
+	public static class TableData {
+		public List<List<String>> text = new ArrayList<List<String>>();
+		public Map<String, List<List<String>>> attributes = new HashMap<String, List<List<String>>>();
+
+		public int getRowCount() {
+			return text.size();
+		}
+
+		/**
+		 * text values of list, first cell of each row
+		 *
+		 * @return
+		 */
+		public List<String> getListValues() {
+			List<String> values = new ArrayList<String>();
+			for (List<String> row : text)
+				values.add(row.isEmpty() ? "" : row.get(0));
+			return values;
+		}
+	}
+
+	/**
+	 * extracts text of list elements
+	 *
+	 * @param list
+	 * @return table with one cell per row, or null if extraction is not available
+	 */
+	public static TableData getList(EnhancedBy list) {
+		return getTable(list, null, -1);
+	}
+
+	/**
+	 * extracts text And attributes of table cells, for each row
+	 *
+	 * @param dataRows
+	 * @param dataCells  cells located within each row. if null, rows are extracted as single cells
+	 * @param maxRows    -1 for all rows
+	 * @param attributes attribute values to extract for each cell. eg. "href", "class"
+	 * @return table data, or null if extraction is not available
+	 */
+	public static TableData getTable(EnhancedBy dataRows, EnhancedBy dataCells, int maxRows, String... attributes) {
+		if (!isAvailable(dataRows, dataCells))
+			return null;
+
+		List<List<String>> rowLocators = ElementLookup.getLocators(dataRows);
+		List<List<String>> cellLocators = dataCells == null ? new ArrayList<List<String>>()
+				: ElementLookup.getLocators(dataCells);
+
+		try {
+			Object result = ((JavascriptExecutor) AbstractDriver.getWebDriver()).executeScript(EXTRACT_SCRIPT,
+					rowLocators, cellLocators, maxRows, Arrays.asList(attributes));
+			return toTableData(result);
+		} catch (Exception e) {
+			TestLog.ConsoleLog("bulk extraction failed for: " + dataRows.name + ", using element lookup. " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * extraction is available for web drivers with supported locators
+	 * bulk extraction is enabled by default. web.bulkExtraction.isEnabled
+	 *
+	 * @param dataRows
+	 * @param dataCells
+	 * @return
+	 */
+	public static boolean isAvailable(EnhancedBy dataRows, EnhancedBy dataCells) {
+		String isEnabled = Config.getValue(BULK_EXTRACTION_ENABLED);
+		if (!isEnabled.isEmpty() && !Boolean.parseBoolean(isEnabled))
+			return false;
+
+		WebDriver driver = AbstractDriver.getWebDriver();
+		if (!Helper.mobile.isWebDriver() || Helper.mobile.isMobile())
+			return false;
+
+		return ElementLookup.isScriptSupported(driver, dataRows)
+				&& (dataCells == null || ElementLookup.isScriptSupported(driver, dataCells));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TableData toTableData(Object result) {
+		TableData table = new TableData();
+		if (!(result instanceof Map))
+			return table;
+
+		Map<String, Object> resultMap = (Map<String, Object>) result;
+		table.text = toRows(resultMap.get("text"));
+
+		Object attributes = resultMap.get("attributes");
+		if (attributes instanceof Map) {
+			for (Map.Entry<String, Object> entry : ((Map<String, Object>) attributes).entrySet())
+				table.attributes.put(entry.getKey(), toRows(entry.getValue()));
+		}
+		return table;
+	}
+
+	private static List<List<String>> toRows(Object value) {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		if (!(value instanceof List))
+			return rows;
+
+		for (Object row : (List<?>) value) {
+			List<String> cells = new ArrayList<String>();
+			if (row instanceof List) {
+				for (Object cell : (List<?>) row)
+					cells.add(cell == null ? "" : cell.toString());
+			}
+			rows.add(cells);
+		}
+		return rows;
+	}
+}
@@ -198,6 +198,7 @@ public class ListHelper {
 
 	/**
 	 * gets hashmap representation of data column with row values
+	 * columns and rows are extracted in a single script call for web drivers
 	 * 
 	 * @param columns
 	 * @param columnInitialIndex
@@ -212,10 +213,12 @@ public class ListHelper {
 		Helper.waitForElementToLoad(columns);
 		HashMap<String, List<String>> table = new HashMap<String, List<String>>();
 
-		int columnCount = Helper.getListCount(columns);
+		List<String> columnList = getBulkListValues(columns);
+		if (columnList.isEmpty())
+			columnList = Helper.getListValues(columns);
+		int columnCount = columnList.size();
 
 		HashMap<Integer, List<String>> rowValues = getTableRowValues(dataRows, dataCells);
-		List<String> columnList = Helper.getListValues(columns);
 
 		for (int i = columnInitialIndex; i < columnCount; i++) {
 			String column = columnList.get(i);
@@ -256,6 +259,8 @@ public class ListHelper {
 	/**
 	 * gets hashmap of table rows map will return row index and row values as
 	 * arraylist
+	 * web tables are extracted in a single script call, other drivers use element
+	 * lookup for each row
 	 * 
 	 * @param dataRows
 	 * @param dataCells
@@ -265,6 +270,14 @@ public class ListHelper {
 	public HashMap<Integer, List<String>> getTableRowValues(EnhancedBy dataRows, EnhancedBy dataCells, int maxRows) {
 		HashMap<Integer, List<String>> table = new HashMap<Integer, List<String>>();
 
+		// if no rows are found, fall back to element lookup, which waits for the rows
+		DomExtractor.TableData tableData = DomExtractor.getTable(dataRows, dataCells, maxRows);
+		if (tableData != null && tableData.getRowCount() > 0) {
+			for (int j = 0; j < tableData.getRowCount(); j++)
+				table.put(j, tableData.text.get(j));
+			return table;
+		}
+
 		int rowCount = Helper.getListCount(dataRows);
 
 		// if max rows is greater than the actual number of rows, set max rows to row
@@ -589,6 +602,20 @@ public class ListHelper {
 		return listElements.getTextList();
 	}
 
+	/**
+	 * returns the list of values in a list, extracted in a single script call
+	 * 
+	 * @param list
+	 * @return values, or empty list if extraction is not available or no element is
+	 *         found
+	 */
+	private List<String> getBulkListValues(EnhancedBy list) {
+		DomExtractor.TableData listData = DomExtractor.getList(list);
+		if (listData == null)
+			return new ArrayList<String>();
+		return listData.getListValues();
+	}
+
 	/**
 	 * get list of text values
 	 * 
@@ -22,6 +22,7 @@ import core.uiCore.driverProperties.browserType.BrowserType;
 import core.uiCore.drivers.AbstractDriver;
 import core.uiCore.webElement.EnhancedBy;
 import core.uiCore.webElement.EnhancedWebElement;
+import core.uiCore.webElement.LocatorCache;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.MultiTouchAction;
 import io.appium.java_client.TouchAction;
@@ -110,6 +111,7 @@ public class MobileHelper {
 	public void refreshMobileApp() {
 		if (isMobile()) {
 			getAppiumDriver().runAppInBackground(Duration.ofSeconds(1));
+			LocatorCache.invalidate(AbstractDriver.getWebDriver());
 		}
 	}
 
@@ -24,6 +24,7 @@ import core.uiCore.drivers.AbstractDriverJunit;
 import core.uiCore.drivers.AbstractDriverTestNG;
 import core.uiCore.webElement.EnhancedBy;
 import core.uiCore.webElement.EnhancedWebElement;
+import core.uiCore.webElement.LocatorCache;
 
 public class PageHelper {
 
@@ -64,6 +65,7 @@ public class PageHelper {
 		}catch(Exception e) {
 			e.getMessage();
 		}
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 
 		Helper.wait.waitForSeconds(1);
 	}
@@ -78,6 +80,7 @@ public class PageHelper {
 		AbstractDriver.getWebDriver().switchTo().defaultContent(); // you are now outside both
 		// frames
 		AbstractDriver.getWebDriver().switchTo().frame(frameElement.get(0));
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -85,6 +88,7 @@ public class PageHelper {
 	 */
 	public void switchToDefaultFrame() {
 		AbstractDriver.getWebDriver().switchTo().defaultContent();
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -100,6 +104,7 @@ public class PageHelper {
 		Set<String> handles = Helper.mobile.getAppiumDriver().getWindowHandles();
 		List<String> handleList = new ArrayList<>(handles);
 		Helper.mobile.getAppiumDriver().switchTo().window(handleList.get(index));
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -196,6 +201,7 @@ public class PageHelper {
 			if (!winHandle.equals(defaultWindow))
 				AbstractDriver.getWebDriver().switchTo().window(winHandle);
 		}
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -206,6 +212,7 @@ public class PageHelper {
 	public void CloseAndReturn(String defaultWindow) {
 		AbstractDriver.getWebDriver().close();
 		AbstractDriver.getWebDriver().switchTo().window(defaultWindow);
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -257,6 +264,7 @@ public class PageHelper {
 		} catch (Exception e) {
 			Helper.assertFalse("tab does not exist");
 		}
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -275,6 +283,7 @@ public class PageHelper {
 		} catch (Exception e) {
 			Helper.assertFalse("tab does not exist");
 		}
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -288,6 +297,7 @@ public class PageHelper {
 		} catch (Exception e) {
 			Helper.assertFalse("tab does not exist");
 		}
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -344,6 +354,7 @@ public class PageHelper {
 	public void navigateBack() {
 		if(AbstractDriver.getWebDriver() == null) return;
 		AbstractDriver.getWebDriver().navigate().back();
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -352,6 +363,7 @@ public class PageHelper {
 	public void navigateForward() {
 		if(AbstractDriver.getWebDriver() == null) return;
 		AbstractDriver.getWebDriver().navigate().forward();
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
@@ -419,6 +431,7 @@ public class PageHelper {
 			
 			retry--;
 		}while(!success && retry >= 0);
+		LocatorCache.invalidate(AbstractDriver.getWebDriver());
 	}
 
 	/**
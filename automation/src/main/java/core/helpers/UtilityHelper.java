@@ -870,10 +870,10 @@ public class UtilityHelper {
 			FileUtils.copyFile(scrFile, new File(extentReportImageFullPath));
 
 			// for hmtl report, use relative path (we need to be able to email the report)
-			if (Config.getValue(ExtentManager.REPORT_TYPE).equals(ExtentManager.HTML_REPORT_TYPE))
-				AbstractDriver.getStep().get().info("").addScreenCaptureFromPath(extentReportImageRelativePath);
+			if (ExtentManager.isHtmlFileReport())
+				TestLog.getTestStep().info("").addScreenCaptureFromPath(extentReportImageRelativePath);
 			else
-				AbstractDriver.getStep().get().info("").addScreenCaptureFromPath(extentReportImageFullPath);
+				TestLog.getTestStep().info("").addScreenCaptureFromPath(extentReportImageFullPath);
 
 		} catch (Exception e) {
 			e.getMessage();
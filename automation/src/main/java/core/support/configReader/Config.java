@@ -19,6 +19,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import core.helpers.Helper;
+import core.support.logger.LogSettings;
 import core.support.logger.TestLog;
 import core.support.objects.ServiceObject;
 import core.support.objects.TestObject;
@@ -34,6 +35,10 @@ public class Config {
 
 	public static String RESOURCE_PATH = PropertiesReader.getLocalResourcePath();
 
+	// config and profile values, loaded once per resource path. root test configs are layered on top
+	private static volatile ConfigStore configProperties = null;
+	private static volatile String configPropertiesPath = null;
+
 	/**
 	 * gets property value based on key from maven or properties file order: maven
 	 * Then properties
@@ -103,9 +108,37 @@ public class Config {
 	 * @param testId id of the test
 	 */
 	public static void loadConfig(String testId) {
+		TestObject test = TestObject.getTestInfo(testId);
+		ConfigStore config = getConfigProperties();
 
-		Map<String, Object> config = loadConfigProperties();
-		TestObject.getTestInfo(testId).config.putAll(config);
+		// config properties are shared as parent layer of the test config
+		if (test.config.isEmpty())
+			test.config = config.newChild();
+		else
+			test.config.putAll(config);
+		test.logSettings = null;
+	}
+
+	/**
+	 * gets config and profile values. property files are read once per resource
+	 * path
+	 * 
+	 * @return
+	 */
+	public static ConfigStore getConfigProperties() {
+		ConfigStore config = configProperties;
+		if (config != null && RESOURCE_PATH.equals(configPropertiesPath))
+			return config;
+
+		synchronized (Config.class) {
+			if (configProperties == null || !RESOURCE_PATH.equals(configPropertiesPath)) {
+				ConfigStore loaded = new ConfigStore();
+				loaded.putAll(loadConfigProperties());
+				configProperties = loaded;
+				configPropertiesPath = RESOURCE_PATH;
+			}
+			return configProperties;
+		}
 	}
 
 	/**
@@ -289,7 +322,6 @@ public class Config {
 	 * @return string value of key
 	 */
 	public static String getValue(String key, boolean isFailable) {
-
 		Object value = TestObject.getTestInfo().config.get(key.trim());
 		if(value == null) 
 				value = MavenReader.getStringProperty(key);
@@ -307,6 +339,36 @@ public class Config {
 		return value.toString();
 	}
 
+	/**
+	 * returns typed config value. value is resolved and parsed once per test
+	 * config, until the config is updated
+	 * 
+	 * @param key typed config key. eg. ConfigKey.booleanKey("api.parameter.encoding")
+	 * @return value, or type default if not found: empty string, false, -1
+	 */
+	public static <T> T getValue(ConfigKey<T> key) {
+		Map<String, Object> config = TestObject.getTestInfo().config;
+		if (config instanceof ConfigStore)
+			return ((ConfigStore) config).resolve(key, Config::resolveValue);
+		return resolveValue(key);
+	}
+
+	/**
+	 * reads and parses config value. missing keys are tracked once per test
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private static <T> T resolveValue(ConfigKey<T> key) {
+		TestObject test = TestObject.getTestInfo();
+		Object value = key.read(test.config);
+
+		// keep track of missing config variables
+		if (value == null)
+			test.missingConfigVars.add(key.getKey());
+		return key.parse(value);
+	}
+
 	/**
 	 * gets int value from properties key
 	 * 
@@ -522,11 +584,24 @@ public class Config {
 			TestLog.logPass("storing in key: " + key + " value: " + value);
 		if(value == null) value = "null";
 		TestObject.getTestInfo().config.put(key, value);
+		refreshLogSettings(TestObject.getTestInfo(), key);
 	}
 
 	public static void putValue(String key, Object value, String info) {
 		TestLog.logPass("storing in key: " + key + " value: " + info);
 		TestObject.getTestInfo().config.put(key.trim(), value);
+		refreshLogSettings(TestObject.getTestInfo(), key);
+	}
+
+	/**
+	 * clears log settings snapshot if log setting is updated
+	 * 
+	 * @param test
+	 * @param key
+	 */
+	private static void refreshLogSettings(TestObject test, String key) {
+		if (LogSettings.isLogSetting(key))
+			test.logSettings = null;
 	}
 
 	/**
@@ -538,6 +613,7 @@ public class Config {
 	public static void setParentValue(String key, Object value) {
 		ServiceObject service = TestObject.getTestInfo().serviceObject;
 		TestObject.getParentTestInfo(service).config.put(key.trim(), value);
+		refreshLogSettings(TestObject.getParentTestInfo(service), key);
 
 	}
 
@@ -550,6 +626,7 @@ public class Config {
 	public static void setGlobalValue(String key, Object value) {
 		TestLog.logPass("storing in global key: " + key + " value: " + value);
 		TestObject.getGlobalTestInfo().config.put(key.trim(), value);
+		refreshLogSettings(TestObject.getGlobalTestInfo(), key);
 	}
 
 	/**
@@ -571,7 +648,7 @@ public class Config {
 	 * print a list of missing config variables
 	 */
 	public static void printMissingConfigVariables() {
-		List<String> variables = TestObject.getTestInfo().missingConfigVars;
+		Set<String> variables = TestObject.getTestInfo().missingConfigVars;
 		if (variables.size() > 0)
 			TestLog.ConsoleLog("List of missing config variables. Please see latest version for updated config: "
 					+ StringUtils.join(variables, ", "));
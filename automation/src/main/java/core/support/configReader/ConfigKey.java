@@ -0,0 +1,171 @@
+package core.support.configReader;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * typed config key. keys are registered once, and each key has an index into the resolved values cache of a config store
+ * resolved values are parsed once per config store, until the key is updated in the store
+ * keys are declared as static constants. eg.
+ * private static final ConfigKey<Boolean> ENCODING_KEY = ConfigKey.booleanKey("api.parameter.encoding")
+ * Config.getValue(ENCODING_KEY)
+ *
+ * string, boolean, int and double accessors in Config that take a key name read the config directly, without cache
+ */
+public class ConfigKey<T> {
+
+	// registered keys are limited, other keys are read without cache
+	public static final int MAX_REGISTERED_KEYS = 4096;
+
+	public static enum keyType {
+		STRING, BOOLEAN, INT, DOUBLE
+	}
+
+	private static final Map<keyType, Map<String, ConfigKey<?>>> registry = new EnumMap<keyType, Map<String, ConfigKey<?>>>(
+			keyType.class);
+	private static final AtomicInteger keyCount = new AtomicInteger();
+
+	// cache indexes of registered keys by trimmed key name, for all key types
+	private static final Map<String, int[]> indexes = new ConcurrentHashMap<String, int[]>();
+
+	static {
+		for (keyType type : keyType.values())
+			registry.put(type, new ConcurrentHashMap<String, ConfigKey<?>>());
+	}
+
+	private final String key;
+	private final String configKey; // trimmed key
+	private final keyType type;
+	private final int index; // -1 if not cached
+
+	private ConfigKey(String key, keyType type, int index) {
+		this.key = key;
+		this.configKey = key.trim();
+		this.type = type;
+		this.index = index;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ConfigKey<String> stringKey(String key) {
+		return (ConfigKey<String>) register(key, keyType.STRING);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ConfigKey<Boolean> booleanKey(String key) {
+		return (ConfigKey<Boolean>) register(key, keyType.BOOLEAN);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ConfigKey<Integer> intKey(String key) {
+		return (ConfigKey<Integer>) register(key, keyType.INT);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ConfigKey<Double> doubleKey(String key) {
+		return (ConfigKey<Double>) register(key, keyType.DOUBLE);
+	}
+
+	/**
+	 * number of registered keys. size of resolved values cache
+	 *
+	 * @return
+	 */
+	public static int getKeyCount() {
+		return Math.min(keyCount.get(), MAX_REGISTERED_KEYS);
+	}
+
+	/**
+	 * cache indexes of keys registered for config key name, for all key types
+	 *
+	 * @param key trimmed config key
+	 * @return indexes, empty if no key is registered
+	 */
+	public static int[] getIndexes(String key) {
+		int[] keyIndexes = indexes.get(key);
+		return keyIndexes == null ? new int[0] : keyIndexes;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public keyType getType() {
+		return type;
+	}
+
+	/**
+	 * index of key in resolved values cache, -1 if key is not cached
+	 *
+	 * @return
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * reads raw value from config, Then maven properties
+	 *
+	 * @param config
+	 * @return value, or null if not found
+	 */
+	public Object read(Map<String, Object> config) {
+		Object value = config.get(configKey);
+		if (value == null)
+			value = MavenReader.getStringProperty(key);
+		return value;
+	}
+
+	/**
+	 * parses raw value to key type. missing or empty values return the type
+	 * default: empty string, false, -1
+	 *
+	 * @param value
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public T parse(Object value) {
+		String stringValue = value == null ? StringUtils.EMPTY : value.toString();
+		switch (type) {
+		case BOOLEAN:
+			return (T) (stringValue.isEmpty() ? Boolean.FALSE : Boolean.valueOf(Boolean.parseBoolean(stringValue)));
+		case INT:
+			return (T) (stringValue.isEmpty() ? Integer.valueOf(-1) : Integer.valueOf(stringValue));
+		case DOUBLE:
+			return (T) (stringValue.isEmpty() ? Double.valueOf(-1) : Double.valueOf(stringValue));
+		default:
+			return (T) stringValue;
+		}
+	}
+
+	private static ConfigKey<?> register(String key, keyType type) {
+		Map<String, ConfigKey<?>> keys = registry.get(type);
+		ConfigKey<?> configKey = keys.get(key);
+		if (configKey != null)
+			return configKey;
+
+		if (keyCount.get() >= MAX_REGISTERED_KEYS)
+			return new ConfigKey<Object>(key, type, -1);
+
+		return keys.computeIfAbsent(key, k -> {
+			ConfigKey<Object> registered = new ConfigKey<Object>(k, type, keyCount.getAndIncrement());
+			indexes.merge(registered.configKey, new int[] { registered.index }, ConfigKey::concat);
+			return registered;
+		});
+	}
+
+	private static int[] concat(int[] first, int[] second) {
+		int[] merged = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, merged, first.length, second.length);
+		return merged;
+	}
+
+	@Override
+	public String toString() {
+		return key;
+	}
+}
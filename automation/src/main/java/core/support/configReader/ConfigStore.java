@@ -0,0 +1,308 @@
+package core.support.configReader;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * layered config map of a test object. eg. suite -> class -> csv file -> test
+ * each store writes to its own top layer, reads fall through to parent layers
+ * a child store shares the layers of its parent without copying. parent layers are frozen when a child is created,
+ * later writes to the parent go to a new layer, so the child keeps the values it inherited (copy on write)
+ * removed keys are hidden with a marker in the top layer
+ * parsed values of typed config keys are cached per store. a write clears the cached values of the written key only
+ *
+ * get, put and remove are concurrent. iteration and size use a merged copy of all layers
+ */
+public class ConfigStore extends AbstractMap<String, Object> {
+
+	private static final Object REMOVED = new Object();
+	private static final int MAX_LAYER_DEPTH = 16;
+
+	private volatile Layer top;
+
+	// resolved values of typed keys, by key index. grown on resolve, slots of written keys are cleared on write
+	private volatile AtomicReferenceArray<Object> resolved = new AtomicReferenceArray<Object>(0);
+
+	// incremented on every write, resolved values are not kept if the store was written while resolving
+	private final AtomicLong version = new AtomicLong();
+
+	// guards replacing the resolved cache, so cleared slots are not copied back into a grown cache
+	private final Object resolvedLock = new Object();
+
+	private static class Layer {
+		final Map<String, Object> values;
+		final Layer parent;
+		final int depth;
+		volatile boolean isFrozen = false;
+
+		Layer(Map<String, Object> values, Layer parent) {
+			this.values = values;
+			this.parent = parent;
+			this.depth = parent == null ? 1 : parent.depth + 1;
+		}
+	}
+
+	public ConfigStore() {
+		this.top = new Layer(new ConcurrentHashMap<String, Object>(), null);
+	}
+
+	private ConfigStore(Layer parent) {
+		this.top = newLayer(parent);
+	}
+
+	/**
+	 * creates store inheriting from parent config. config stores are shared as
+	 * layers, other maps are copied
+	 *
+	 * @param parent
+	 * @return
+	 */
+	public static ConfigStore inherit(Map<String, Object> parent) {
+		if (parent instanceof ConfigStore)
+			return ((ConfigStore) parent).newChild();
+
+		ConfigStore store = new ConfigStore();
+		store.putAll(parent);
+		return store;
+	}
+
+	/**
+	 * creates child store. reads fall through to current values of this store
+	 *
+	 * @return
+	 */
+	public ConfigStore newChild() {
+		return new ConfigStore(freeze());
+	}
+
+	/**
+	 * number of layers, including parent layers
+	 *
+	 * @return
+	 */
+	public int getDepth() {
+		return top.depth;
+	}
+
+	/**
+	 * gets resolved value of typed key, resolves and caches value if not cached
+	 * 
+	 * @param key
+	 * @param resolver
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T resolve(ConfigKey<T> key, Function<ConfigKey<T>, T> resolver) {
+		int index = key.getIndex();
+		if (index < 0)
+			return resolver.apply(key);
+
+		AtomicReferenceArray<Object> cache = resolved;
+		if (index < cache.length()) {
+			Object cached = cache.get(index);
+			if (cached != null)
+				return (T) cached;
+		}
+
+		long before = version.get();
+		T value = resolver.apply(key);
+		if (value == null)
+			return value;
+		if (index >= cache.length())
+			cache = grow(index);
+		cache.set(index, value);
+
+		// store was written while resolving. value may be stale, discard it
+		if (version.get() != before)
+			cache.compareAndSet(index, value, null);
+		return value;
+	}
+
+	@Override
+	public Object get(Object key) {
+		for (Layer layer = top; layer != null; layer = layer.parent) {
+			Object value = layer.values.get(key);
+			if (value != null)
+				return value == REMOVED ? null : value;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		Object previous = get(key);
+		getWritableLayer().values.put(key, value);
+		clearResolved(key);
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends Object> values) {
+		getWritableLayer().values.putAll(values);
+		for (String key : values.keySet())
+			clearResolved(key);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		Object previous = get(key);
+		if (previous != null) {
+			getWritableLayer().values.put((String) key, REMOVED);
+			clearResolved((String) key);
+		}
+		return previous;
+	}
+
+	@Override
+	public synchronized void clear() {
+		top = new Layer(new ConcurrentHashMap<String, Object>(), null);
+		synchronized (resolvedLock) {
+			version.incrementAndGet();
+			resolved = new AtomicReferenceArray<Object>(0);
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Layer layer = top; layer != null; layer = layer.parent) {
+			for (Object value : layer.values.values()) {
+				if (value != REMOVED)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return toMap(top).size();
+	}
+
+	/**
+	 * merged copy of all layers. changes to the entry set are not written to the
+	 * store
+	 */
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return Collections.unmodifiableMap(toMap(top)).entrySet();
+	}
+
+	/**
+	 * merges layer and its parents into one map, child values override parent
+	 * values
+	 *
+	 * @param top
+	 * @return
+	 */
+	private static Map<String, Object> toMap(Layer top) {
+		List<Layer> layers = new ArrayList<Layer>();
+		for (Layer layer = top; layer != null; layer = layer.parent)
+			layers.add(layer);
+
+		Map<String, Object> merged = new HashMap<String, Object>();
+		for (int i = layers.size() - 1; i >= 0; i--) {
+			for (Entry<String, Object> entry : layers.get(i).values.entrySet()) {
+				if (entry.getValue() == REMOVED)
+					merged.remove(entry.getKey());
+				else
+					merged.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * discards resolved values of typed keys registered for key
+	 * 
+	 * @param key
+	 */
+	private void clearResolved(String key) {
+		int[] indexes = ConfigKey.getIndexes(key);
+		synchronized (resolvedLock) {
+			version.incrementAndGet();
+			AtomicReferenceArray<Object> cache = resolved;
+			for (int index : indexes) {
+				if (index < cache.length())
+					cache.set(index, null);
+			}
+		}
+	}
+
+	/**
+	 * replaces resolved cache with a copy large enough for index
+	 * 
+	 * @param index
+	 * @return
+	 */
+	private AtomicReferenceArray<Object> grow(int index) {
+		synchronized (resolvedLock) {
+			AtomicReferenceArray<Object> cache = resolved;
+			if (index < cache.length())
+				return cache;
+
+			AtomicReferenceArray<Object> grown = new AtomicReferenceArray<Object>(
+					Math.max(index + 1, ConfigKey.getKeyCount()));
+			for (int i = 0; i < cache.length(); i++)
+				grown.set(i, cache.get(i));
+			resolved = grown;
+			return grown;
+		}
+	}
+
+	/**
+	 * freezes top layer, so it can be shared with a child store
+	 *
+	 * @return
+	 */
+	private synchronized Layer freeze() {
+		top.isFrozen = true;
+		return top;
+	}
+
+	/**
+	 * returns top layer, adds a new layer if top layer is shared with a child
+	 * store
+	 *
+	 * @return
+	 */
+	private Layer getWritableLayer() {
+		Layer current = top;
+		if (!current.isFrozen)
+			return current;
+
+		synchronized (this) {
+			if (top.isFrozen)
+				top = newLayer(top);
+			return top;
+		}
+	}
+
+	/**
+	 * new layer on top of parent. deep chains are flattened into a single layer
+	 *
+	 * @param parent
+	 * @return
+	 */
+	private static Layer newLayer(Layer parent) {
+		if (parent.depth < MAX_LAYER_DEPTH)
+			return new Layer(new ConcurrentHashMap<String, Object>(), parent);
+
+		Layer flattened = new Layer(new ConcurrentHashMap<String, Object>(toMap(parent)), null);
+		flattened.isFrozen = true;
+		return new Layer(new ConcurrentHashMap<String, Object>(), flattened);
+	}
+}
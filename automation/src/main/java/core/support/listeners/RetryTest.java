@@ -19,7 +19,6 @@ import core.support.configReader.Config;
 import core.support.logger.TestLog;
 import core.support.objects.TestObject;
 import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
-import core.uiCore.drivers.AbstractDriverTestNG;
 
 public class RetryTest implements IRetryAnalyzer {
 
@@ -51,7 +50,7 @@ public class RetryTest implements IRetryAnalyzer {
 
 	public void setExtendReport() {
 		this.test = TestObject.getTestInfo().testScenerio;
-		this.step = AbstractDriverTestNG.step.get();
+		this.step = TestLog.getTestStep();
 	}
 
 	public ExtentTest getTest() {
@@ -30,13 +30,21 @@ import com.google.common.base.Joiner;
 
 import core.apiCore.ServiceManager;
 import core.apiCore.driver.ApiTestDriver;
+import core.apiCore.helpers.CsvFileIndex;
+import core.apiCore.helpers.JsonDocument;
+import core.apiCore.interfaces.KafkaInterface;
+import core.apiCore.interfaces.RabbitMqInterface;
+import core.apiCore.interfaces.ServiceBusInterface;
 import core.helpers.Helper;
 import core.helpers.ScreenRecorderHelper;
 import core.support.configReader.Config;
 import core.support.logger.ExtentManager;
+import core.support.logger.ReportStore;
 import core.support.logger.TestLog;
+import core.support.objects.DatabaseObject;
 import core.support.objects.DeviceManager;
 import core.support.objects.DriverObject;
+import core.support.objects.TestLifecycleManager;
 import core.support.objects.TestObject;
 import core.uiCore.driverProperties.driverType.DriverType;
 import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
@@ -213,6 +221,13 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 		
 		TestLog.Then("Test is finished successfully");
 		TestLog.printBatchLogsToConsole();
+
+		// append test to stream report, if enabled
+		ReportStore.appendTest("pass");
+
+		// test results are reported, test object can be compacted. parsed json responses are released
+		TestLifecycleManager.markFinished();
+		JsonDocument.clearRecent();
 	}
 	
 	@Override
@@ -244,6 +259,9 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 		
 		TestLog.Then("Test failed");
 
+		// append test to stream report, if enabled
+		ReportStore.appendTest("fail");
+
 		// print out console logs to console if batch logging is enabled
 		TestLog.printBatchLogsToConsole();
 		
@@ -253,9 +271,10 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 		
 		// quit current driver after failure
 		Helper.quitCurrentDriver();
-		
-	
-		
+
+		// test results are reported, test object can be compacted. parsed json responses are released
+		TestLifecycleManager.markFinished();
+		JsonDocument.clearRecent();
 	}
 
 	@Override
@@ -272,6 +291,13 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 	    else
 	    	iTestResult.setStatus(ITestResult.SKIP);
 
+		// append test to stream report, if enabled. retried tests are appended on their last run
+		if (!iTestResult.wasRetried()) {
+			ReportStore.appendTest(iTestResult.getStatus() == ITestResult.FAILURE ? "fail" : "skip");
+			TestLifecycleManager.markFinished();
+			JsonDocument.clearRecent();
+		}
+
 		// mobile device is now available again
 		DeviceManager.setDeviceAvailability(true);
 		
@@ -396,6 +422,9 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 
 		TestLog.ConsoleLog("Autonomx initiating...");
 
+		// csv directories And files are indexed again for each suite
+		CsvFileIndex.invalidate();
+
 		// get suite name, remove spaces
 		String suitename = getSuiteName(suite.getName());
 
@@ -460,11 +489,28 @@ public class TestListener implements ITestListener, IClassListener, ISuiteListen
 		if (isServiceSuite(suite))
 			ServiceManager.runServiceAfterSuite();
 
-		// print list of missing config variables
-		Config.printMissingConfigVariables();
-		
 		// rerun failed tests if enabled
 		runFailedTests(suite);
+
+		// close shared message queue consumers. after rerun, so reruns use the same connections
+		KafkaInterface.closeConnection();
+		RabbitMqInterface.closeConnection();
+		ServiceBusInterface.closeConnection();
+
+		// close database connection pools
+		DatabaseObject.closeAllConnectionPools();
+
+		// print list of missing config variables
+		Config.printMissingConfigVariables();
+
+		// print mobile device wait times
+		DeviceManager.printWaitMetrics();
+
+		// render stream report once, including rerun results
+		ExtentManager.writeSuiteReport();
+
+		// write pending console logs
+		TestLog.flushLogs();
 		
 		// check autonomx maven version update
 		TestLog.checkLatestAutonomxMavenVersion();
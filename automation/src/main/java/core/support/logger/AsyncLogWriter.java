@@ -0,0 +1,174 @@
+package core.support.logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.Priority;
+
+/**
+ * writes console logs on a background thread
+ * test threads add logs to a bounded lock free ring buffer, a single writer thread drains it to log4j
+ * logs of each thread are written in order. if the buffer is full, the test thread waits for space
+ */
+@SuppressWarnings("deprecation")
+public class AsyncLogWriter {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private static volatile AsyncLogWriter writer = null;
+
+	private final Entry[] buffer;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong(); // next position to claim
+	private volatile long head = 0; // next position to write, updated by writer thread only
+	private final Thread thread;
+
+	/**
+	 * ring buffer slot. sequence equals position when slot is free, position + 1 when slot is published
+	 */
+	private static class Entry {
+		volatile long sequence;
+		Logger logger;
+		Priority priority;
+		String value;
+	}
+
+	private AsyncLogWriter(int bufferSize) {
+		int size = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+		this.buffer = new Entry[size];
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++) {
+			buffer[i] = new Entry();
+			buffer[i].sequence = i;
+		}
+
+		thread = new Thread(this::run, "autonomx-log-writer");
+		thread.setDaemon(true);
+		thread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(TimeUnit.SECONDS.toMillis(5))));
+	}
+
+	/**
+	 * writes log on background thread. starts writer on first use
+	 *
+	 * @param logger
+	 * @param priority
+	 * @param value
+	 */
+	public static void write(Logger logger, Priority priority, String value) {
+		AsyncLogWriter current = getWriter();
+
+		while (!current.offer(logger, priority, value)) {
+			// writer stopped, write on current thread
+			if (!current.thread.isAlive()) {
+				logger.log(priority, value);
+				return;
+			}
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * waits until logs added so far are written
+	 *
+	 * @param timeoutMillis
+	 */
+	public static void flush(long timeoutMillis) {
+		AsyncLogWriter current = writer;
+		if (current == null)
+			return;
+
+		long target = current.tail.get();
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (current.head < target && current.thread.isAlive() && System.currentTimeMillis() < deadline)
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	/**
+	 * number of logs waiting to be written
+	 *
+	 * @return
+	 */
+	public static long getPendingCount() {
+		AsyncLogWriter current = writer;
+		if (current == null)
+			return 0;
+		return current.tail.get() - current.head;
+	}
+
+	private static AsyncLogWriter getWriter() {
+		AsyncLogWriter current = writer;
+		if (current != null)
+			return current;
+
+		synchronized (AsyncLogWriter.class) {
+			if (writer == null)
+				writer = new AsyncLogWriter(LogSettings.getBufferSize(DEFAULT_BUFFER_SIZE));
+			return writer;
+		}
+	}
+
+	private boolean offer(Logger logger, Priority priority, String value) {
+		long position = tail.get();
+		while (true) {
+			Entry entry = buffer[(int) (position & mask)];
+			long difference = entry.sequence - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					entry.logger = logger;
+					entry.priority = priority;
+					entry.value = value;
+					entry.sequence = position + 1; // publish
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false; // full
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	private void run() {
+		long parkNanos = 0;
+		while (true) {
+			if (drain() > 0) {
+				parkNanos = 0;
+				continue;
+			}
+			// back off while idle
+			parkNanos = Math.min(MAX_IDLE_PARK_NANOS, Math.max(TimeUnit.MICROSECONDS.toNanos(100), parkNanos * 2));
+			LockSupport.parkNanos(parkNanos);
+		}
+	}
+
+	private int drain() {
+		int count = 0;
+		long position = head;
+		while (true) {
+			Entry entry = buffer[(int) (position & mask)];
+			if (entry.sequence != position + 1)
+				break;
+
+			try {
+				entry.logger.log(entry.priority, entry.value);
+			} catch (Throwable e) {
+				e.printStackTrace();
+			}
+			entry.logger = null;
+			entry.priority = null;
+			entry.value = null;
+			entry.sequence = position + buffer.length; // release slot
+
+			position++;
+			head = position;
+			count++;
+		}
+		return count;
+	}
+}
@@ -12,6 +12,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
@@ -50,6 +51,7 @@ public class ExtentManager {
 	public static final String REPORT_TYPE = "report.reporterType";
 	public static final String HTML_REPORT_TYPE = "html";
 	public static final String KLOV_REPORT_TYPE = "klov";
+	public static final String STREAM_REPORT_TYPE = "stream";
 	public static final String KLOV_SERVER_URL = "klov.server.url";
 	public static final String KLOV_MONGODB_URL = "klov.mongodb.url";
 
@@ -241,10 +243,14 @@ public class ExtentManager {
 				if (Config.getValue(REPORT_TYPE).equals(KLOV_REPORT_TYPE)) {
 					link = new URI(Config.getValue(KLOV_SERVER_URL));
 				}
-				if (Config.getValue(REPORT_TYPE).equals(HTML_REPORT_TYPE)) {
+				if (isHtmlFileReport()) {
 					link = new File(getReportHTMLFullPath()).toURI();
 				}
 
+				// stream report is rendered with results so far
+				if (ReportStore.isEnabled())
+					ReportStore.writeReport();
+
 				// open the default web browser for the HTML page
 
 				Desktop.getDesktop().browse(link);
@@ -254,6 +260,17 @@ public class ExtentManager {
 		}
 	}
 
+	/**
+	 * returns true if report is written to html file in report folder: html or
+	 * stream report type
+	 * 
+	 * @return
+	 */
+	public static boolean isHtmlFileReport() {
+		String reportType = Config.getValue(REPORT_TYPE);
+		return reportType.equals(HTML_REPORT_TYPE) || reportType.equals(STREAM_REPORT_TYPE);
+	}
+
 	public static void writeTestReport() {
 		// removeEmptyTestNodesFromReport();
 		try {
@@ -262,9 +279,28 @@ public class ExtentManager {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		// merge step nodes recorded by tests before writing the report
+		StepRecorder.flush(TimeUnit.MINUTES.toMillis(1));
+
+		// stream report store only writes new results, report is rendered at end of suite
+		if (ReportStore.isEnabled()) {
+			ReportStore.flush();
+			return;
+		}
 		ExtentManager.getReporter().flush();
 	}
 
+	/**
+	 * closes the stream report store and renders the html report
+	 * called once at end of suite, after failed tests are rerun
+	 */
+	public static void writeSuiteReport() {
+		if (!ReportStore.isEnabled())
+			return;
+		ReportStore.close();
+		ReportStore.writeReport();
+	}
+
 	/**
 	 * Note: currently disabled as we're only adding test nodes to report removes
 	 * empty logs from the test report these are logs that are initialized, But no
@@ -325,7 +361,7 @@ public class ExtentManager {
 		if (Config.getValue(REPORT_TYPE).equals(KLOV_REPORT_TYPE)) {
 			link = Config.getValue(KLOV_SERVER_URL);
 		}
-		if (Config.getValue(REPORT_TYPE).equals(HTML_REPORT_TYPE)) {
+		if (isHtmlFileReport()) {
 			link = new File(getReportHTMLFullPath()).toURI().toString();
 		}
 		System.out.println("Extent test report link: " + link);
@@ -385,6 +421,10 @@ public class ExtentManager {
 
 		TestLog.ConsoleLog("sending email report");
 
+		// stream report is rendered with results so far
+		if (ReportStore.isEnabled())
+			ReportStore.writeReport();
+
 		// zip the test report directory
 		String zipFilePath = UtilityHelper.zipDir(getReportRootFullPath(), TEST_OUTPUT_FULL_PATH + getReportName());
 		// notify slack
@@ -415,6 +455,10 @@ public class ExtentManager {
 		// do not clear report if running fail test retry suite
 		if (suitename.equals(TestListener.FAILED_RERUN_SUITE_NAME))
 			return;
+
+		// stream report store holds results of earlier test contexts in the suite. store is cleared once per suite
+		if (ReportStore.isEnabled() && ReportStore.isOpen())
+			return;
 		
 		try {
 			FileUtils.deleteDirectory(new File(getReportRootFullPath()));
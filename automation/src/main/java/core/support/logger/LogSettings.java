@@ -0,0 +1,78 @@
+package core.support.logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import core.support.configReader.Config;
+import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
+
+/**
+ * log settings of a test, read from config once per test instead of per log call
+ * snapshot is cleared when a log setting is updated in config
+ */
+public class LogSettings {
+
+	private static final int DEFAULT_MAX_RETAINED_LOGS = 10000;
+
+	private static final Set<String> LOG_SETTING_KEYS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+			TestLog.LOG_SKIP_CONSOLE, TestLog.IS_LOG_LIMIT, TestLog.LOG_MAX_LIMIT, TestLog.ENABLE_DEBUG,
+			TestLog.ENABLE_EXTENT_SUBSTEPS, TestLog.LOG_ASYNC_ENABLED, TestLog.LOG_RETENTION_MAX_ENTRIES,
+			CrossPlatformProperties.ENABLE_BATCH_LOGGING)));
+
+	public final boolean isSkipConsole;
+	public final boolean isLogLimit;
+	public final int logMaxLimit; // -1 if not set
+	public final boolean isDebug;
+	public final boolean isDetailedReport;
+	public final boolean isBatchLogging;
+	public final boolean isAsync;
+	public final int maxRetainedLogs; // 0 for no limit
+
+	private LogSettings() {
+		this.isSkipConsole = Config.getBooleanValue(TestLog.LOG_SKIP_CONSOLE);
+		this.isLogLimit = Config.getBooleanValue(TestLog.IS_LOG_LIMIT);
+		this.logMaxLimit = Config.getIntValue(TestLog.LOG_MAX_LIMIT);
+		this.isDebug = Config.getBooleanValue(TestLog.ENABLE_DEBUG);
+		this.isDetailedReport = Config.getValue(TestLog.ENABLE_EXTENT_SUBSTEPS).equals("true");
+		this.isBatchLogging = CrossPlatformProperties.getEnableBatchLogging();
+
+		// async logging is enabled by default
+		String async = Config.getValue(TestLog.LOG_ASYNC_ENABLED);
+		this.isAsync = async.isEmpty() || Boolean.parseBoolean(async);
+
+		int maxRetained = Config.getIntValue(TestLog.LOG_RETENTION_MAX_ENTRIES);
+		this.maxRetainedLogs = maxRetained == -1 ? DEFAULT_MAX_RETAINED_LOGS : maxRetained;
+	}
+
+	/**
+	 * reads log settings from config of current test
+	 *
+	 * @return
+	 */
+	public static LogSettings load() {
+		return new LogSettings();
+	}
+
+	/**
+	 * returns true if key is a log setting, so settings snapshot needs to be refreshed
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static boolean isLogSetting(String key) {
+		return LOG_SETTING_KEYS.contains(key.trim());
+	}
+
+	/**
+	 * async log buffer size. log.async.buffer.size
+	 *
+	 * @param defaultSize
+	 * @return
+	 */
+	public static int getBufferSize(int defaultSize) {
+		int size = Config.getGlobalIntValue(TestLog.LOG_ASYNC_BUFFER_SIZE);
+		return size > 0 ? size : defaultSize;
+	}
+}
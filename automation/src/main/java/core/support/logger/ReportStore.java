@@ -0,0 +1,309 @@
+package core.support.logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.ScreenCapture;
+import com.aventstack.extentreports.model.Test;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import core.support.configReader.Config;
+import core.support.objects.TestObject;
+import core.support.objects.TestObject.testState;
+
+/**
+ * streaming report store, used when report.reporterType is stream
+ * each finished test is appended to an ndjson file as one line, and its extent nodes are compacted
+ * the html report is rendered from the store once at end of suite, one test at a time
+ * report heap usage does not grow with the number of tests, and flushing only writes new results
+ * if a test is stored more than once, eg. failed test rerun, its last result is reported
+ */
+public class ReportStore {
+
+	public static final String STORE_FILE_SUFFIX = ".ndjson";
+
+	private static final Gson gson = new Gson();
+	private static BufferedWriter writer = null;
+
+	/**
+	 * returns true if report type is stream
+	 *
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return Config.getValue(ExtentManager.REPORT_TYPE).equals(ExtentManager.STREAM_REPORT_TYPE);
+	}
+
+	public static String getStoreFullPath() {
+		return ExtentManager.getReportRootFullPath() + ExtentManager.getReportName() + STORE_FILE_SUFFIX;
+	}
+
+	/**
+	 * appends finished test to the store, and removes its steps from the extent
+	 * report in memory. only test methods with a test scenario are stored
+	 *
+	 * @param status pass, fail, skip
+	 */
+	public static void appendTest(String status) {
+		if (!isEnabled())
+			return;
+
+		TestObject test = TestObject.getTestInfo();
+		if (test.testScenerio == null || !TestObject.getTestState(test.testId).equals(testState.testMethod))
+			return;
+
+		// steps of the test are merged into its scenario before it is stored
+		StepRecorder.merge(test);
+		Test scenario = test.testScenerio.getModel();
+
+		JsonObject entry = new JsonObject();
+		entry.addProperty("feature", scenario.getParent() == null ? test.className : scenario.getParent().getName());
+		entry.addProperty("scenario", scenario.getName());
+		entry.addProperty("testId", test.testId);
+		entry.addProperty("status", status);
+		entry.addProperty("startTime", getTime(scenario.getStartTime()));
+		entry.addProperty("endTime", getTime(scenario.getEndTime()));
+		entry.add("steps", getSteps(scenario));
+
+		appendLine(gson.toJson(entry));
+		compact(test);
+	}
+
+	/**
+	 * writes appended tests to disk
+	 */
+	public static synchronized void flush() {
+		if (writer == null)
+			return;
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * renders the html report from the store
+	 * first pass finds the last entry of each test, second pass writes the tests
+	 * summary is written after the tests, and displayed at the top of the page
+	 */
+	public static synchronized void writeReport() {
+		flush();
+
+		Path store = Paths.get(getStoreFullPath());
+		Path report = Paths.get(ExtentManager.getReportHTMLFullPath());
+		int passed = 0, failed = 0, skipped = 0;
+
+		try {
+			Files.createDirectories(report.getParent());
+			if (!store.toFile().exists())
+				Files.createFile(store);
+
+			Map<String, Integer> lastEntries = getLastEntries(store);
+			try (BufferedReader reader = Files.newBufferedReader(store, StandardCharsets.UTF_8);
+					BufferedWriter html = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+				writeHeader(html);
+
+				String line;
+				int lineIndex = -1;
+				while ((line = reader.readLine()) != null) {
+					lineIndex++;
+					if (line.trim().isEmpty())
+						continue;
+					JsonObject entry = gson.fromJson(line, JsonObject.class);
+
+					// earlier results of rerun tests are replaced
+					if (lastEntries.get(entry.get("testId").getAsString()) != lineIndex)
+						continue;
+
+					String status = entry.get("status").getAsString();
+					if (status.equals("pass"))
+						passed++;
+					else if (status.equals("fail"))
+						failed++;
+					else
+						skipped++;
+					writeTest(html, entry);
+				}
+
+				writeFooter(html, passed, failed, skipped);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * returns true if tests have been appended to the store since it was last closed
+	 *
+	 * @return
+	 */
+	public static synchronized boolean isOpen() {
+		return writer != null;
+	}
+
+	/**
+	 * closes the store file. eg. at end of suite
+	 */
+	public static synchronized void close() {
+		if (writer == null)
+			return;
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		writer = null;
+	}
+
+	/**
+	 * line index of the last entry of each test id
+	 *
+	 * @param store
+	 * @return
+	 * @throws IOException
+	 */
+	private static Map<String, Integer> getLastEntries(Path store) throws IOException {
+		Map<String, Integer> lastEntries = new HashMap<String, Integer>();
+		try (BufferedReader reader = Files.newBufferedReader(store, StandardCharsets.UTF_8)) {
+			String line;
+			int lineIndex = -1;
+			while ((line = reader.readLine()) != null) {
+				lineIndex++;
+				if (line.trim().isEmpty())
+					continue;
+				lastEntries.put(gson.fromJson(line, JsonObject.class).get("testId").getAsString(), lineIndex);
+			}
+		}
+		return lastEntries;
+	}
+
+	private static synchronized void appendLine(String line) {
+		try {
+			if (writer == null) {
+				new File(ExtentManager.getReportRootFullPath()).mkdirs();
+				writer = Files.newBufferedWriter(Paths.get(getStoreFullPath()), StandardCharsets.UTF_8,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			}
+			writer.write(line);
+			writer.newLine();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * removes stored steps from the extent scenario, so finished tests are not kept
+	 * in memory. scenario node is kept for the extent report structure
+	 *
+	 * @param test
+	 */
+	private static void compact(TestObject test) {
+		test.testScenerio.getModel().getNodeContext().getAll().clear();
+		test.testScenerio.getModel().getLogContext().getAll().clear();
+		test.testSteps.clear();
+	}
+
+	private static JsonArray getSteps(Test scenario) {
+		JsonArray steps = new JsonArray();
+		for (Test node : scenario.getNodeContext().getAll()) {
+			JsonObject step = new JsonObject();
+			step.addProperty("keyword", node.getBddType() == null ? "" : node.getBddType().getSimpleName());
+			step.addProperty("name", node.getName());
+			step.addProperty("status", node.getStatus().toString());
+			step.add("logs", getLogs(node.getLogContext().getAll()));
+			step.add("screenshots", getScreenshots(node.getScreenCaptureContext().getAll()));
+			steps.add(step);
+		}
+		return steps;
+	}
+
+	private static JsonArray getLogs(List<Log> logs) {
+		JsonArray array = new JsonArray();
+		for (Log log : logs) {
+			JsonObject entry = new JsonObject();
+			entry.addProperty("status", log.getStatus().toString());
+			entry.addProperty("details", log.getDetails());
+			array.add(entry);
+		}
+		return array;
+	}
+
+	private static JsonArray getScreenshots(List<ScreenCapture> screenshots) {
+		JsonArray array = new JsonArray();
+		for (ScreenCapture screenshot : screenshots)
+			array.add(screenshot.getPath());
+		return array;
+	}
+
+	private static long getTime(Date date) {
+		return date == null ? 0 : date.getTime();
+	}
+
+	private static void writeHeader(Writer html) throws IOException {
+		html.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>"
+				+ escape(ExtentManager.getReportName()) + "</title>\n<style>\n"
+				+ "body { font-family: Arial, sans-serif; font-size: 14px; margin: 20px; display: flex; flex-direction: column; }\n"
+				+ ".summary { order: -1; margin-bottom: 16px; }\n"
+				+ ".test { border: 1px solid #ddd; margin: 4px 0; padding: 4px 8px; }\n"
+				+ ".step { margin: 4px 0 4px 16px; }\n" + ".log { margin-left: 16px; }\n"
+				+ ".pass { color: #32a852; } .fail { color: #d9534f; } .skip { color: #f0ad4e; }\n"
+				+ "</style>\n</head>\n<body>\n");
+	}
+
+	private static void writeTest(Writer html, JsonObject entry) throws IOException {
+		String status = entry.get("status").getAsString();
+		long duration = entry.get("endTime").getAsLong() - entry.get("startTime").getAsLong();
+
+		html.write("<details class=\"test\"><summary><span class=\"" + escape(status) + "\">" + escape(status)
+				+ "</span> " + escape(entry.get("feature").getAsString()) + " - "
+				+ escape(entry.get("scenario").getAsString()) + " (" + Math.max(0, duration) + " ms)</summary>\n");
+
+		for (JsonElement element : entry.getAsJsonArray("steps")) {
+			JsonObject step = element.getAsJsonObject();
+			html.write("<div class=\"step\"><b class=\"" + escape(step.get("status").getAsString()) + "\">"
+					+ escape(step.get("name").getAsString()) + "</b>\n");
+
+			// log details are html, as in the extent report
+			for (JsonElement log : step.getAsJsonArray("logs")) {
+				String details = log.getAsJsonObject().get("details").getAsString();
+				if (!details.isEmpty())
+					html.write("<div class=\"log\">" + details + "</div>\n");
+			}
+			for (JsonElement screenshot : step.getAsJsonArray("screenshots"))
+				html.write("<div class=\"log\"><a href=\"" + escape(screenshot.getAsString()) + "\"><img src=\""
+						+ escape(screenshot.getAsString()) + "\" width=\"320\"></a></div>\n");
+			html.write("</div>\n");
+		}
+		html.write("</details>\n");
+	}
+
+	private static void writeFooter(Writer html, int passed, int failed, int skipped) throws IOException {
+		html.write("<div class=\"summary\"><h2>" + escape(ExtentManager.getReportName()) + "</h2>" + "tests: "
+				+ (passed + failed + skipped) + " | <span class=\"pass\">passed: " + passed
+				+ "</span> | <span class=\"fail\">failed: " + failed + "</span> | <span class=\"skip\">skipped: "
+				+ skipped + "</span></div>\n</body>\n</html>\n");
+	}
+
+	private static String escape(String value) {
+		return StringEscapeUtils.escapeHtml(value);
+	}
+}
@@ -0,0 +1,214 @@
+package core.support.logger;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.gherkin.model.IGherkinFormatterModel;
+
+import core.support.objects.TestObject;
+
+/**
+ * records gherkin steps and substeps of a test without locking
+ * test threads add step events to a shared queue, a single consumer thread creates the extent nodes in order
+ * each test keeps its own step tree: the current step node, and counts of recorded and merged events
+ * when a test needs its step node, eg. for screenshots, it waits until its own events are merged
+ * step nodes created by the consumer are added to the test steps of the test object by merge, on the test thread
+ * the consumer thread parks while the queue is empty, and is unparked when an event is recorded
+ */
+public class StepRecorder {
+
+	private static final long MERGE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long MERGE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final ConcurrentLinkedQueue<StepEvent> events = new ConcurrentLinkedQueue<StepEvent>();
+	private static final AtomicLong totalRecorded = new AtomicLong();
+	private static volatile long totalMerged = 0; // updated by consumer thread only
+	private static volatile Thread consumer = null;
+	private static volatile boolean isIdle = false; // consumer is parked or about to park
+
+	private final AtomicLong recorded = new AtomicLong();
+	private volatile long merged = 0; // updated by consumer thread only
+	private volatile ExtentTest currentStep = null; // updated by consumer thread only
+	private volatile boolean hasStep = false;
+
+	// step nodes created by the consumer thread, not yet added to test steps
+	private final ConcurrentLinkedQueue<ExtentTest> createdSteps = new ConcurrentLinkedQueue<ExtentTest>();
+
+	/**
+	 * step event of a test, applied to the extent report by the consumer thread
+	 */
+	private static class StepEvent {
+		final StepRecorder recorder;
+		final Consumer<StepRecorder> action;
+
+		StepEvent(StepRecorder recorder, Consumer<StepRecorder> action) {
+			this.recorder = recorder;
+			this.action = action;
+		}
+	}
+
+	/**
+	 * records gherkin step node for test. node is created under the current test scenario
+	 *
+	 * @param test
+	 * @param gherkin     gherkin node class. eg. Given.class
+	 * @param name
+	 * @param isTrackStep if true, node becomes the current step of the test
+	 */
+	public static void recordStep(TestObject test, Class<? extends IGherkinFormatterModel> gherkin, String name,
+			boolean isTrackStep) {
+		ExtentTest scenario = test.testScenerio;
+		if (isTrackStep)
+			test.stepRecorder.hasStep = true;
+
+		record(test.stepRecorder, recorder -> {
+			ExtentTest testStep = scenario.createNode(gherkin, name).pass("");
+			if (!isTrackStep)
+				return;
+			recorder.createdSteps.offer(testStep);
+			recorder.currentStep = testStep;
+		});
+	}
+
+	/**
+	 * records log on the current step of test
+	 *
+	 * @param test
+	 * @param log  log action on step node. eg. step -> step.pass(value)
+	 */
+	public static void recordLog(TestObject test, Consumer<ExtentTest> log) {
+		record(test.stepRecorder, recorder -> {
+			if (recorder.currentStep != null)
+				log.accept(recorder.currentStep);
+		});
+	}
+
+	/**
+	 * returns true if a step has been recorded for test
+	 *
+	 * @param test
+	 * @return
+	 */
+	public static boolean hasStep(TestObject test) {
+		return test.stepRecorder.hasStep;
+	}
+
+	/**
+	 * waits until recorded events of test are merged into the report, and returns the current step node
+	 * step nodes created for the test are added to its test steps. called on the test thread
+	 *
+	 * @param test
+	 * @return current step, null if no step is recorded
+	 */
+	public static ExtentTest merge(TestObject test) {
+		StepRecorder recorder = test.stepRecorder;
+		long target = recorder.recorded.get();
+		long deadline = System.currentTimeMillis() + MERGE_TIMEOUT_MILLIS;
+		while (recorder.merged < target && System.currentTimeMillis() < deadline) {
+			Thread current = consumer;
+			if (current == null || !current.isAlive()) {
+				drainOnCurrentThread();
+				continue;
+			}
+			LockSupport.unpark(current);
+			LockSupport.parkNanos(MERGE_PARK_NANOS);
+		}
+
+		ExtentTest step;
+		while ((step = recorder.createdSteps.poll()) != null)
+			test.testSteps.add(step);
+		return recorder.currentStep;
+	}
+
+	/**
+	 * waits until all recorded events are merged into the report. eg. before report is written
+	 *
+	 * @param timeoutMillis
+	 */
+	public static void flush(long timeoutMillis) {
+		long target = totalRecorded.get();
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (totalMerged < target && System.currentTimeMillis() < deadline) {
+			Thread current = consumer;
+			if (current == null || !current.isAlive()) {
+				drainOnCurrentThread();
+				continue;
+			}
+			LockSupport.unpark(current);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+
+	/**
+	 * number of step events waiting to be merged
+	 *
+	 * @return
+	 */
+	public static long getPendingCount() {
+		return totalRecorded.get() - totalMerged;
+	}
+
+	private static void record(StepRecorder recorder, Consumer<StepRecorder> action) {
+		startConsumer();
+		recorder.recorded.incrementAndGet();
+		totalRecorded.incrementAndGet();
+		events.offer(new StepEvent(recorder, action));
+		if (isIdle)
+			LockSupport.unpark(consumer);
+	}
+
+	private static void startConsumer() {
+		if (consumer != null)
+			return;
+
+		synchronized (StepRecorder.class) {
+			if (consumer != null)
+				return;
+			Thread thread = new Thread(StepRecorder::run, "autonomx-step-recorder");
+			thread.setDaemon(true);
+			thread.start();
+			consumer = thread;
+		}
+	}
+
+	private static void run() {
+		while (true) {
+			if (drain() > 0)
+				continue;
+
+			// park until an event is recorded. queue is checked again after idle is set, so an event offered before
+			// the flag was visible is not missed
+			isIdle = true;
+			if (events.isEmpty())
+				LockSupport.park();
+			isIdle = false;
+		}
+	}
+
+	/**
+	 * merges events if the consumer thread has stopped
+	 */
+	private static synchronized void drainOnCurrentThread() {
+		drain();
+	}
+
+	private static int drain() {
+		int count = 0;
+		StepEvent event;
+		while ((event = events.poll()) != null) {
+			try {
+				event.action.accept(event.recorder);
+			} catch (Throwable e) {
+				e.printStackTrace();
+			}
+			event.recorder.merged++;
+			totalMerged++;
+			count++;
+		}
+		return count;
+	}
+}
@@ -6,6 +6,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
@@ -52,6 +53,9 @@ public class TestLog {
 	public static final String IS_LOG_LIMIT = "log.limit.enabled";
 	public static final String LOG_MAX_LIMIT = "log.max.limit.char";
 	public static final String LOG_SKIP_CONSOLE = "console.skip.console.log";
+	public static final String LOG_ASYNC_ENABLED = "log.async.enabled";
+	public static final String LOG_ASYNC_BUFFER_SIZE = "log.async.buffer.size";
+	public static final String LOG_RETENTION_MAX_ENTRIES = "log.retention.max.entries";
 
 	
 
@@ -65,6 +69,14 @@ public class TestLog {
 	static marytts.util.data.audio.AudioPlayer player;
 	public static final String LOG4JPATH = Config.RESOURCE_PATH + "/log4j.xml";
 
+	// timestamp is formatted once per second per thread
+	private static final ThreadLocal<Timestamp> timestamp = ThreadLocal.withInitial(() -> new Timestamp());
+
+	private static class Timestamp {
+		long second = -1;
+		String value;
+	}
+
 	
 	
 	/**
@@ -105,7 +117,7 @@ public class TestLog {
 	 * @param args  additional arguments for logging to be formatted
 	 */
 	public static void ConsoleLogDebug(String value, Object... args) {
-		boolean isDebug = Config.getBooleanValue(ENABLE_DEBUG);
+		boolean isDebug = getLogSettings().isDebug;
 		if (isDebug)
 			logConsoleMessage(Priority.WARN, formatMessage(value, args));
 
@@ -128,7 +140,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void Background(String value, Object... args) {
+	public static void Background(String value, Object... args) {
 		setTestStep(gherkins.Background, value, args);
 	}
 
@@ -138,7 +150,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void But(String value, Object... args) {
+	public static void But(String value, Object... args) {
 		logConsoleMessage(Priority.INFO, "But " + formatMessage(value, args));
 		setTestStep(gherkins.But, value, args);
 	}
@@ -149,7 +161,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void Given(String value, Object... args) {
+	public static void Given(String value, Object... args) {
 		logConsoleMessage(Priority.INFO, "Given " + formatMessage(value, args));
 		setTestStep(gherkins.Given, value, args);
 	}
@@ -160,7 +172,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void When(String value, Object... args) {
+	public static void When(String value, Object... args) {
 		logConsoleMessage(Priority.INFO, "When " + formatMessage(value, args));
 
 		setTestStep(gherkins.When, value, args);
@@ -173,7 +185,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void And(String value, Object... args) {
+	public static void And(String value, Object... args) {
 		logConsoleMessage(Priority.INFO, "And " + formatMessage(value, args));
 
 		setTestStep(gherkins.And, value, args);
@@ -186,7 +198,7 @@ public class TestLog {
 	 * @param value value to log
 	 * @param args  additional arguments for logging to be formatted
 	 */
-	public synchronized static void Then(String value, Object... args) {
+	public static void Then(String value, Object... args) {
 		logConsoleMessage(Priority.INFO, "Then " + formatMessage(value, args));
 
 		setTestStep(gherkins.Then, value, args);
@@ -201,42 +213,40 @@ public class TestLog {
 	 * @param value        value to log
 	 * @param args         additional arguments for logging to be formatted
 	 */
-	public static synchronized void setTestStep(gherkins gherkinState, String value, Object... args) {
-		ExtentTest testStep = null;
+	public static void setTestStep(gherkins gherkinState, String value, Object... args) {
+		TestObject test = TestObject.getTestInfo();
 
-		testState state = TestObject.getTestState(TestObject.getTestInfo().testId);
+		testState state = TestObject.getTestState(test.testId);
 		if (!state.equals(testState.testMethod))
 			return;
 
+		// if test step is not set, do not track the node. Test will be set in test
+		// method state only.
+		boolean isTrackStep = test.testSteps != null;
+
+		// step node is created by step recorder, without blocking other tests
 		switch (gherkinState) {
 		case Given:
-			testStep = getTestScenario().createNode(Given.class, "Given " + formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, Given.class, "Given " + formatMessage(value, args), isTrackStep);
 			break;
 		case When:
-			testStep = getTestScenario().createNode(When.class, "When " + formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, When.class, "When " + formatMessage(value, args), isTrackStep);
 			break;
 		case Then:
-			testStep = getTestScenario().createNode(Then.class, "Then " + formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, Then.class, "Then " + formatMessage(value, args), isTrackStep);
 			break;
 		case And:
-			testStep = getTestScenario().createNode(And.class, "And " + formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, And.class, "And " + formatMessage(value, args), isTrackStep);
 			break;
 		case But:
-			testStep = getTestScenario().createNode(But.class, "But " + formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, But.class, "But " + formatMessage(value, args), isTrackStep);
 			break;
 		case Background:
-			testStep = getTestScenario().createNode(Background.class, formatMessage(value, args)).pass("");
+			StepRecorder.recordStep(test, Background.class, formatMessage(value, args), isTrackStep);
 			break;
 		default:
 			Helper.assertFalse("incorrect state " + gherkinState.name());
 		}
-		// if test step is not set, do not log. Test will be set in test method state
-		// only.
-		if (TestObject.getTestInfo().testSteps == null)
-			return;
-
-		TestObject.getTestInfo().testSteps.add(testStep);
-		AbstractDriver.getStep().set(testStep);
 	}
 
 	/**
@@ -245,13 +255,14 @@ public class TestLog {
 	 * @param subStep the substep node value
 	 */
 	public static void setPassSubTestStep(String subStep) {
-		if (getTestStep() == null)
+		TestObject test = TestObject.getTestInfo();
+		if (!StepRecorder.hasStep(test))
 			return;
-		testState state = TestObject.getTestState(TestObject.getTestInfo().testId);
+		testState state = TestObject.getTestState(test.testId);
 		if (!state.equals(testState.testMethod))
 			return;
 
-		TestObject.getTestInfo().testSubSteps.add(subStep);
+		test.testSubSteps.add(subStep);
 		
 		String label = "<head>\r\n" + 
 				"    <meta charset=\"UTF-8\">\r\n" + 
@@ -278,7 +289,7 @@ public class TestLog {
 				"</head> <body>\r\n" + 
 				"    <textarea> "+subStep+"</textarea>\r\n";
 		Markup m = MarkupHelper.createLabel(label, ExtentColor.WHITE);
-		getTestStep().pass(m);
+		StepRecorder.recordLog(test, step -> step.pass(m));
 	}
 
 	/**
@@ -289,23 +300,25 @@ public class TestLog {
 	 *                        report path : relative path to the video file
 	 */
 	public static void attachVideoLog(String path, boolean isVideoAttached) {
-		testState state = TestObject.getTestState(TestObject.getTestInfo().testId);
+		TestObject test = TestObject.getTestInfo();
+		testState state = TestObject.getTestState(test.testId);
 		if (!state.equals(testState.testMethod))
 			return;
 
 		// for hmtl report, use relative path (we need to be able to email the report)
 		// for klov we need absolute path
-		if (!Config.getValue(ExtentManager.REPORT_TYPE).equals(ExtentManager.HTML_REPORT_TYPE))
+		if (!ExtentManager.isHtmlFileReport())
 			path = ExtentManager.getReportRootFullPath() + path;
 
 		String videoLog = "<video width=\"320\" height=\"240\" controls>\r\n" + "  <source src=" + path
 				+ " type=\"video/mp4\">\r\n" + "  Your browser does not support the video tag.\r\n" + "</video>";
 
+		String videoLink = "<a href='" + path + "'>screen recording Link</a>";
 		if (isVideoAttached)
-			getTestStep().pass(videoLog);
+			StepRecorder.recordLog(test, step -> step.pass(videoLog));
 
-		getTestStep().pass("<a href='" + path + "'>screen recording Link</a>");
-		TestObject.getTestInfo().testSubSteps.add("screen recording relative path: " + path);
+		StepRecorder.recordLog(test, step -> step.pass(videoLink));
+		test.testSubSteps.add("screen recording relative path: " + path);
 
 	}
 
@@ -317,10 +330,11 @@ public class TestLog {
 	 * @param args  additional arguments for logging to be formatted
 	 */
 	public static void logPass(String value, Object... args) {
-		logConsoleMessage(Priority.INFO, formatMessage(value, args));
-		if (Config.getValue(ENABLE_EXTENT_SUBSTEPS).equals("true")) {
+		String message = formatMessage(value, args);
+		logConsoleMessage(Priority.INFO, message);
+		if (getLogSettings().isDetailedReport) {
 			// this will only throw exception with before suite
-			setPassSubTestStep(formatMessage(value, args));
+			setPassSubTestStep(message);
 		}
 	}
 
@@ -403,8 +417,9 @@ public class TestLog {
 	 * @return truncated message to maximum length
 	 */
 	public static String setMaxLength(String value) {
-		boolean isLogLimit = Config.getBooleanValue(IS_LOG_LIMIT);
-		int logMaxLimit = Config.getIntValue(LOG_MAX_LIMIT);
+		LogSettings settings = getLogSettings();
+		boolean isLogLimit = settings.isLogLimit;
+		int logMaxLimit = settings.logMaxLimit;
 		if(logMaxLimit == -1) logMaxLimit = value.length();
 		if(isLogLimit)
 			return setMaxLength(value, logMaxLimit);
@@ -523,23 +538,101 @@ public class TestLog {
 	 * @param value    string value to log
 	 */
 	private static void logConsoleMessage(Priority priority, String value) {
+		TestObject test = TestObject.getTestInfo();
+		LogSettings settings = getLogSettings(test);
 		
-		if(Config.getBooleanValue(LOG_SKIP_CONSOLE))
+		if(settings.isSkipConsole)
 			return;
 
-		value = Helper.date.getTimestampSeconds() + " : " + getTestLogPrefix() + value;
+		value = getTimestamp() + " : " + getTestLogPrefix(test) + value;
 		value = Helper.stringRemoveLines(value);
 
 		// if batch logging is disabled, log to console
-		Boolean enableBatchLogging = CrossPlatformProperties.getEnableBatchLogging();
-		if (!enableBatchLogging) {
-			TestObject.getTestInfo().log.log(priority, value);
+		if (!settings.isBatchLogging) {
+			writeLog(test, priority, value);
 			//Reporter.log(value);
 		}
 		
 		// keep track of the logs
 		LogObject log = new LogObject(value, priority);
-		TestObject.getTestInfo().testLog.add(log);
+		test.testLog.add(log);
+		trimLogs(test);
+	}
+
+	/**
+	 * gets log settings of current test. settings are read from config once per test
+	 * 
+	 * @return
+	 */
+	public static LogSettings getLogSettings() {
+		return getLogSettings(TestObject.getTestInfo());
+	}
+
+	private static LogSettings getLogSettings(TestObject test) {
+		LogSettings settings = test.logSettings;
+		if (settings == null) {
+			settings = LogSettings.load();
+			test.logSettings = settings;
+		}
+		return settings;
+	}
+
+	/**
+	 * removes oldest test logs past the retention limit. log.retention.max.entries
+	 * if batch logging is enabled, removed logs are printed to console first
+	 * 
+	 * @param test
+	 */
+	public static void trimLogs(TestObject test) {
+		LogSettings settings = getLogSettings(test);
+		List<LogObject> logs = test.testLog;
+		if (settings.maxRetainedLogs <= 0 || logs.size() <= settings.maxRetainedLogs)
+			return;
+
+		// remove in chunks, so list is not shifted per log
+		int removeCount = logs.size() - settings.maxRetainedLogs + settings.maxRetainedLogs / 10;
+		List<LogObject> oldest = logs.subList(0, Math.min(removeCount, logs.size()));
+		if (settings.isBatchLogging) {
+			for (LogObject log : oldest)
+				writeLog(test, log.priority, log.value);
+		}
+		oldest.clear();
+	}
+
+	/**
+	 * writes log to console. written on background thread if async logging is enabled
+	 * 
+	 * @param test
+	 * @param priority
+	 * @param value
+	 */
+	private static void writeLog(TestObject test, Priority priority, String value) {
+		if (getLogSettings(test).isAsync)
+			AsyncLogWriter.write(test.log, priority, value);
+		else
+			test.log.log(priority, value);
+	}
+
+	/**
+	 * waits for async logs to be written to console. eg. at suite end
+	 */
+	public static void flushLogs() {
+		AsyncLogWriter.flush(TimeUnit.SECONDS.toMillis(30));
+	}
+
+	/**
+	 * gets timestamp in seconds. formatted once per second per thread
+	 * 
+	 * @return
+	 */
+	private static String getTimestamp() {
+		Timestamp cached = timestamp.get();
+		long second = System.currentTimeMillis() / 1000;
+		if (second != cached.second) {
+			cached.value = Helper.date.getTimestampSeconds();
+			cached.second = second;
+		}
+		return cached.value;
 	}
 
 
@@ -548,12 +641,23 @@ public class TestLog {
 	 * 
 	 * @return the logging prefix
 	 */
-	private static String getTestLogPrefix() {
-		return TestObject.getTestInfo().className + "-" + TestObject.getTestInfo().testName + " - ";
+	private static String getTestLogPrefix(TestObject test) {
+		return test.className + "-" + test.testName + " - ";
 	}
 
-	private synchronized static ExtentTest getTestStep() {
-		return AbstractDriver.getStep().get();
+	/**
+	 * gets current step node of test, once its recorded steps are merged into the
+	 * report
+	 * 
+	 * @return
+	 */
+	public static ExtentTest getTestStep() {
+		ExtentTest step = StepRecorder.merge(TestObject.getTestInfo());
+		if (step == null)
+			return AbstractDriver.getStep().get();
+
+		AbstractDriver.getStep().set(step);
+		return step;
 	}
 
 	/**
@@ -624,9 +728,9 @@ public class TestLog {
 
 		for (LogObject log : testLog) {
 			if (testId.isEmpty()) {
-				TestObject.getTestInfo().log.log(log.priority, log.value);
+				writeLog(TestObject.getTestInfo(), log.priority, log.value);
 			} else
-				TestObject.getTestInfo(testId).log.log(log.priority, log.value);
+				writeLog(TestObject.getTestInfo(testId), log.priority, log.value);
 		}
 		if (testId.isEmpty())
 			TestObject.getTestInfo().testLog = new ArrayList<LogObject>();
@@ -6,18 +6,29 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 
+import core.apiCore.helpers.SqlConnectionPool;
+
 public class DatabaseObject {
 
 	public enum driverOptions {
 		driver, url, name, username, password
 	}
 
+	public static final int DEFAULT_POOL_IDLE_SECONDS = 300;
+	public static final int DEFAULT_POOL_LEASE_TIMEOUT_SECONDS = 120;
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+
 	public Connection connection = null;
 	public String driver = StringUtils.EMPTY;
 	public String url = StringUtils.EMPTY;
 	public String databaseName = StringUtils.EMPTY;
 	public String username = StringUtils.EMPTY;
 	public String password = StringUtils.EMPTY;
+	public int poolSize = -1; // defaults to parallel test count
+	public int poolIdleSeconds = DEFAULT_POOL_IDLE_SECONDS;
+	public int fetchSize = 0; // 0: driver default
+	public int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+	public SqlConnectionPool connectionPool = null;
 
 	public static Map<Integer, DatabaseObject> DATABASES = new ConcurrentHashMap<Integer, DatabaseObject>();
 
@@ -51,6 +62,59 @@ public class DatabaseObject {
 		return this;
 	}
 
+	public DatabaseObject withPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+		return this;
+	}
+
+	public DatabaseObject withPoolIdleSeconds(int poolIdleSeconds) {
+		this.poolIdleSeconds = poolIdleSeconds;
+		return this;
+	}
+
+	public DatabaseObject withFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
+	public DatabaseObject withStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+		return this;
+	}
+
+	/**
+	 * gets connection pool for database, creates pool on first call
+	 * 
+	 * @param defaultPoolSize pool size if not set for database
+	 * @return
+	 */
+	public synchronized SqlConnectionPool getConnectionPool(int defaultPoolSize) {
+		if (connectionPool == null) {
+			int size = poolSize > 0 ? poolSize : defaultPoolSize;
+			connectionPool = new SqlConnectionPool(this, size, poolIdleSeconds, DEFAULT_POOL_LEASE_TIMEOUT_SECONDS);
+		}
+		return connectionPool;
+	}
+
+	public synchronized SqlConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	/**
+	 * closes connection pools of all databases. a new pool is created on next use
+	 */
+	public static void closeAllConnectionPools() {
+		for (DatabaseObject database : DATABASES.values()) {
+			SqlConnectionPool pool;
+			synchronized (database) {
+				pool = database.connectionPool;
+				database.connectionPool = null;
+			}
+			if (pool != null)
+				pool.close();
+		}
+	}
+
 	public Connection getConnection() {
 		return this.connection;
 	}
@@ -74,4 +138,12 @@ public class DatabaseObject {
 	public String getPassword() {
 		return this.password;
 	}
+
+	public int getFetchSize() {
+		return this.fetchSize;
+	}
+
+	public int getStatementCacheSize() {
+		return this.statementCacheSize;
+	}
 }
\ No newline at end of file
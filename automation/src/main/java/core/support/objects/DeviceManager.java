@@ -2,77 +2,200 @@ package core.support.objects;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import core.helpers.Helper;
+import core.support.configReader.Config;
+import core.support.logger.TestLog;
 import core.support.objects.DeviceObject.DeviceType;
 
 /**
  * @author CAEHMAT
  *
- * 
+ * device pool for mobile tests, by device type
+ * available devices are kept in a queue per device type. tests wait for a device in arrival order, up to
+ * mobile.device.lease.timeout.seconds
+ * devices are released when the test finishes, through setDeviceAvailability
  */
 public class DeviceManager {
 
+	public static final String DEVICE_LEASE_TIMEOUT_SECONDS = "mobile.device.lease.timeout.seconds";
+	private static final int DEFAULT_LEASE_TIMEOUT_SECONDS = 300;
+
 	public static Map<String, DeviceObject> devices = new ConcurrentHashMap<String, DeviceObject>();
 
+	// available device names by type
+	private static final Map<DeviceType, DevicePool> pools = new ConcurrentHashMap<DeviceType, DevicePool>();
+
+	// key: leased device name. value: test id
+	private static final Map<String, String> leases = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * available devices of a type. permits match the devices in the queue, waiting tests are served in order
+	 */
+	private static class DevicePool {
+		final Queue<String> available = new ConcurrentLinkedQueue<String>();
+		final Semaphore permits = new Semaphore(0, true);
+		final AtomicLong deviceCount = new AtomicLong();
+
+		// wait metrics
+		final AtomicLong leaseCount = new AtomicLong();
+		final AtomicLong timeoutCount = new AtomicLong();
+		final AtomicLong totalWaitMillis = new AtomicLong();
+		final AtomicLong maxWaitMillis = new AtomicLong();
+	}
+
 	/**
 	 * get first available device for test ios or android simulator or real device
+	 * waits for a device to be released if all devices are in use. fails after
+	 * mobile.device.lease.timeout.seconds
 	 * sets device availability to false
-	 * 
+	 *
 	 * @return
 	 */
-	public synchronized static String getFirstAvailableDevice(DeviceType deviceType) {
-		for (Entry<String, DeviceObject> entry : devices.entrySet()) {
-			if (entry.getValue().deviceType == deviceType && entry.getValue().isAvailable.equals(true)) {
-				entry.getValue().isAvailable = false;
-				devices.put(entry.getKey(), entry.getValue());
+	public static String getFirstAvailableDevice(DeviceType deviceType) {
+		TestObject testInfo = TestObject.getTestInfo();
+		String testId = TestObject.getTestId();
 
-				// set device name
-				TestObject.getTestInfo().deviceName = entry.getValue().deviceName;
+		// device is already leased by the test. eg. driver creation is retried
+		DeviceObject leased = devices.get(testInfo.deviceName);
+		if (leased != null && leased.deviceType == deviceType && testId.equals(leases.get(leased.deviceName)))
+			return leased.deviceName;
 
-				return entry.getValue().deviceName;
-			}
+		DevicePool pool = getPool(deviceType);
+		if (pool.deviceCount.get() == 0) {
+			Helper.assertFalse("no devices loaded for device type: " + deviceType);
+			return "";
+		}
+
+		int timeout = getLeaseTimeoutSeconds();
+		long start = System.currentTimeMillis();
+		boolean isAcquired = false;
+		try {
+			isAcquired = pool.permits.tryAcquire(timeout, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		long waitMillis = System.currentTimeMillis() - start;
+
+		if (!isAcquired) {
+			pool.timeoutCount.incrementAndGet();
+			Helper.assertFalse("no " + deviceType + " device available after " + waitMillis / 1000 + " seconds. devices: "
+					+ pool.deviceCount.get() + ". " + DEVICE_LEASE_TIMEOUT_SECONDS + ": " + timeout);
+			return "";
 		}
-		return "";
+
+		// a permit is released after its device is added to the queue
+		String deviceName = pool.available.poll();
+		DeviceObject device = devices.get(deviceName);
+		device.isAvailable = false;
+		leases.put(deviceName, testId);
+		trackWait(pool, waitMillis);
+
+		// set device name
+		testInfo.deviceName = deviceName;
+		if (waitMillis > 1000)
+			TestLog.ConsoleLog("waited " + waitMillis + " ms for " + deviceType + " device: " + deviceName);
+
+		return deviceName;
 	}
 
 	/**
 	 * load all devices And set availablility to true
-	 * 
+	 *
 	 * @param deviceList
 	 */
 	public static void loadDevices(List<String> deviceList, DeviceType type) {
-
+		DevicePool pool = getPool(type);
 		for (String deviceName : deviceList) {
-			if (devices.get(deviceName) == null) {
-				DeviceObject device = new DeviceObject().withDeviceName(deviceName).withIsAvailable(true)
-						.withDeviceType(type);
-				devices.put(deviceName, device);
+			DeviceObject device = new DeviceObject().withDeviceName(deviceName).withIsAvailable(true)
+					.withDeviceType(type);
+			if (devices.putIfAbsent(deviceName, device) == null) {
+				pool.deviceCount.incrementAndGet();
+				pool.available.offer(deviceName);
+				pool.permits.release();
 			}
 		}
 	}
 
 	/**
 	 * set device availability used for device management
-	 * 
+	 * releases device leased by the current test
+	 *
 	 * @param isAvailable
 	 */
 	public static void setDeviceAvailability(Boolean isAvailable) {
 		// if its not a mobile test, return
 		if (!Helper.mobile.isMobile())
 			return;
-		
+
 		// multiple winapp devices not supported
 		if(Helper.mobile.isWinApp())
 			return;
 
 		String deviceName = TestObject.getTestInfo().deviceName;
 
-		if (devices.get(deviceName) != null)
-			devices.put(deviceName, devices.get(deviceName).withIsAvailable(true));
-		else
+		if (devices.get(deviceName) == null)
 			Helper.assertFalse("device not found: " + deviceName);
+		else if (isAvailable)
+			releaseDevice(deviceName);
+	}
+
+	/**
+	 * returns device to its pool. device is released once per lease
+	 *
+	 * @param deviceName
+	 */
+	public static void releaseDevice(String deviceName) {
+		DeviceObject device = devices.get(deviceName);
+		if (device == null || leases.remove(deviceName) == null)
+			return;
+
+		device.isAvailable = true;
+		DevicePool pool = getPool(device.deviceType);
+		pool.available.offer(deviceName);
+		pool.permits.release();
+	}
+
+	/**
+	 * prints device wait metrics for each device type with leases
+	 */
+	public static void printWaitMetrics() {
+		for (Map.Entry<DeviceType, DevicePool> entry : pools.entrySet()) {
+			DevicePool pool = entry.getValue();
+			long leaseCount = pool.leaseCount.get();
+			if (leaseCount == 0 && pool.timeoutCount.get() == 0)
+				continue;
+
+			TestLog.ConsoleLog("device wait " + entry.getKey() + ": leases: " + leaseCount + " timeouts: "
+					+ pool.timeoutCount.get() + " average wait ms: "
+					+ (leaseCount == 0 ? 0 : pool.totalWaitMillis.get() / leaseCount) + " max wait ms: "
+					+ pool.maxWaitMillis.get());
+		}
+	}
+
+	private static void trackWait(DevicePool pool, long waitMillis) {
+		pool.leaseCount.incrementAndGet();
+		pool.totalWaitMillis.addAndGet(waitMillis);
+		pool.maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+	}
+
+	private static DevicePool getPool(DeviceType deviceType) {
+		return pools.computeIfAbsent(deviceType, k -> new DevicePool());
+	}
+
+	/**
+	 * max wait for a device. mobile.device.lease.timeout.seconds, default 300
+	 *
+	 * @return
+	 */
+	private static int getLeaseTimeoutSeconds() {
+		int timeout = Config.getIntValue(DEVICE_LEASE_TIMEOUT_SECONDS);
+		return timeout < 0 ? DEFAULT_LEASE_TIMEOUT_SECONDS : timeout;
 	}
-}
\ No newline at end of file
+}
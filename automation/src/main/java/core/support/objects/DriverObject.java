@@ -21,6 +21,7 @@ import core.uiCore.driverProperties.capabilities.WebCapability;
 import core.uiCore.driverProperties.capabilities.WinAppCapabilities;
 import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
 import core.uiCore.drivers.AbstractDriver;
+import core.uiCore.drivers.DriverPool;
 
 /**
  * @author CAEHMAT
@@ -76,11 +77,34 @@ public class DriverObject {
 		TestObject.getTestInfo().withWebDriverList(new ArrayList<WebDriver>());
 	}
 
+	/**
+	 * returns test drivers to the driver pool, drivers not in the pool are quit
+	 */
+	public static void releaseTestDrivers() {
+		List<WebDriver> drivers = new ArrayList<>(TestObject.getTestInfo().webDriverList);
+		for (WebDriver driver : drivers) {
+			if (!DriverPool.isPooled(driver)) {
+				quitWebDriver(driver);
+				continue;
+			}
+			// driver is removed from driver list before reset, so it is not reused by another test
+			driverList.remove(driver);
+			DriverPool.release(driver);
+			TestObject.getTestInfo().withIsFirstRun(true);
+			TestObject.getTestInfo().withIsForcedRestart(true);
+			if (driver.equals(AbstractDriver.getWebDriver()))
+				AbstractDriver.setWebDriver(null);
+		}
+		// reset driver list
+		TestObject.getTestInfo().withWebDriverList(new ArrayList<WebDriver>());
+	}
+
 	/**
 	 * quits webdriver if it's running
 	 */
 	public static void quitWebDriver(WebDriver driver) {
 		TestLog.ConsoleLog("quitting test: " + TestObject.getTestInfo().testName);
+		DriverPool.remove(driver);
 
 		if (driver != null && driverList.get(driver) != null) {
 			TestObject.getTestInfo().withIsFirstRun(true);
@@ -105,9 +129,9 @@ public class DriverObject {
 	
 	public static void shutDownDriver(boolean isTestPass) {
 		if(isTestPass) {
-			// shutdown drivers if single sign in is false, else shutdown all except active driver
+			// release drivers to pool if single sign in is false, else shutdown all except active driver
 			if (!CrossPlatformProperties.isSingleSignIn())
-				DriverObject.quitTestDrivers();
+				DriverObject.releaseTestDrivers();
 			else
 				shutdownSingleSignInDrivers();
 		}else {
@@ -144,6 +168,9 @@ public class DriverObject {
 		}
 		// reset driver list
 		driverList = new ConcurrentHashMap<WebDriver, DriverObject>();
+
+		// quit idle pooled drivers
+		DriverPool.quitAll();
 	}
 
 	/**
@@ -2,8 +2,7 @@ package core.support.objects;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -21,9 +20,11 @@ public class MessageObject {
 	public String topic = StringUtils.EMPTY;
 	public List<String> headers = new ArrayList<String>();
 	public boolean isLogged = false;
+	public long sequence = 0; // order of arrival in message store
+	public long receivedTime = 0;
+	private final AtomicBoolean isClaimed = new AtomicBoolean(false);
 
-
-	public static Map<MessageObject, Boolean> outboundMessages = new ConcurrentHashMap<MessageObject, Boolean>();
+	public static MessageStore outboundMessages = new MessageStore();
 
 	public MessageObject withMessageType(messageType messageType) {
 		this.messageType = messageType;
@@ -60,6 +61,29 @@ public class MessageObject {
 		return this;
 	}
 
+	public MessageObject withSequence(long sequence) {
+		this.sequence = sequence;
+		return this;
+	}
+
+	public MessageObject withReceivedTime(long receivedTime) {
+		this.receivedTime = receivedTime;
+		return this;
+	}
+
+	/**
+	 * claims the message for the current test
+	 * 
+	 * @return true if message was not claimed before
+	 */
+	public boolean claim() {
+		return isClaimed.compareAndSet(false, true);
+	}
+
+	public boolean isClaimed() {
+		return isClaimed.get();
+	}
+
 	public messageType getMessageType() {
 		return this.messageType;
 	}
@@ -87,4 +111,12 @@ public class MessageObject {
 	public List<String> getHeader() {
 		return this.headers;
 	}
+
+	public long getSequence() {
+		return this.sequence;
+	}
+
+	public long getReceivedTime() {
+		return this.receivedTime;
+	}
 }
\ No newline at end of file
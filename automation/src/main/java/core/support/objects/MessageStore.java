@@ -0,0 +1,446 @@
+package core.support.objects;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+
+import core.support.configReader.Config;
+
+/**
+ * store for received outbound messages (kafka, rabbitMq, service bus)
+ * messages are indexed by message id and correlation id for constant time lookup
+ * id like tokens of message bodies, eg. order numbers And uuids, are indexed for response identifier lookup
+ * messages are claimed atomically, so each message is consumed by a single test
+ * messages older than retention period, or above max store size, are evicted
+ */
+public class MessageStore {
+
+	public static final String MESSAGE_STORE_RETENTION_SECONDS = "message.store.retention.seconds";
+	public static final String MESSAGE_STORE_MAX_SIZE = "message.store.max.size";
+
+	private static final int DEFAULT_RETENTION_SECONDS = 600;
+	private static final int DEFAULT_MAX_SIZE = 50000;
+	private static final long EVICTION_INTERVAL_MILLIS = 1000;
+	private static final int MAX_INDEXED_TOKENS = 64; // messages with more id tokens are scanned
+	private static final int MIN_TOKEN_LENGTH = 4;
+
+	private final AtomicLong sequence = new AtomicLong(0);
+	private final AtomicLong lastEviction = new AtomicLong(0);
+	private final AtomicInteger count = new AtomicInteger(0); // skip list size() is not constant time
+
+	// key: sequence number. ordered by arrival
+	private final ConcurrentSkipListMap<Long, MessageObject> messages = new ConcurrentSkipListMap<Long, MessageObject>();
+
+	// key: message id or correlation id
+	private final Map<String, Queue<MessageObject>> idIndex = new ConcurrentHashMap<String, Queue<MessageObject>>();
+
+	// key: id token of message body. value: sequence numbers of messages containing the token
+	private final Map<String, Set<Long>> tokenIndex = new ConcurrentHashMap<String, Set<Long>>();
+
+	// messages with too many id tokens to index. key: sequence number
+	private final ConcurrentSkipListMap<Long, MessageObject> unindexed = new ConcurrentSkipListMap<Long, MessageObject>();
+
+	// released when a new message arrives. replaced on every arrival
+	private volatile CountDownLatch arrival = new CountDownLatch(1);
+
+	/**
+	 * cursor keeps track of the last message scanned by a test
+	 * messages are immutable, so a message that did not match once is not scanned again
+	 */
+	public static class Cursor {
+		private long position = 0;
+
+		public Cursor() {
+		}
+
+		/**
+		 * cursor after position. eg. MessageStore.getTail when a message is sent, so earlier messages are not scanned
+		 *
+		 * @param position
+		 */
+		public Cursor(long position) {
+			this.position = position;
+		}
+	}
+
+	/**
+	 * adds received message to the store
+	 *
+	 * @param message
+	 */
+	public void add(MessageObject message) {
+		message.withReceivedTime(System.currentTimeMillis());
+		Set<String> tokens = getIdTokens(message.getMessage());
+
+		// messages are inserted in sequence order, so cursors do not skip late inserts
+		// message is indexed before it is visible to cursors
+		synchronized (messages) {
+			long id = sequence.incrementAndGet();
+			message.withSequence(id);
+			addToTokenIndex(id, message, tokens);
+			messages.put(id, message);
+		}
+		count.incrementAndGet();
+		addToIndex(message.getMessageId(), message);
+		addToIndex(message.getCorrelationId(), message);
+
+		// wake up tests waiting for messages
+		CountDownLatch previous = arrival;
+		arrival = new CountDownLatch(1);
+		previous.countDown();
+
+		evictIfRequired();
+	}
+
+	/**
+	 * waits until a message newer than the cursor arrives, or timeout is reached
+	 * returns immediately if messages have arrived since the cursor was last moved
+	 * moves the cursor to the latest message
+	 *
+	 * @param cursor
+	 * @param timeoutMillis
+	 * @return true if new messages are available
+	 */
+	public boolean awaitMessages(Cursor cursor, long timeoutMillis) {
+		CountDownLatch latch = arrival;
+		boolean isAvailable = sequence.get() > cursor.position;
+
+		if (!isAvailable) {
+			try {
+				isAvailable = latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		cursor.position = sequence.get();
+		return isAvailable;
+	}
+
+	/**
+	 * sequence number of the latest message
+	 *
+	 * @return
+	 */
+	public long getTail() {
+		return sequence.get();
+	}
+
+	/**
+	 * keeps compatibility with previous map based api
+	 *
+	 * @param message
+	 * @param isAvailable
+	 */
+	public void put(MessageObject message, Boolean isAvailable) {
+		if (!isAvailable)
+			message.claim();
+		add(message);
+	}
+
+	/**
+	 * claims messages with exact matching message id or correlation id
+	 *
+	 * @param messageId
+	 * @return
+	 */
+	public List<MessageObject> claimByMessageId(String messageId) {
+		List<MessageObject> claimed = new ArrayList<MessageObject>();
+		if (StringUtils.isEmpty(messageId))
+			return claimed;
+
+		Queue<MessageObject> matches = idIndex.get(messageId);
+		if (matches == null)
+			return claimed;
+
+		for (MessageObject message : matches) {
+			if (message.claim())
+				claimed.add(message);
+		}
+		return claimed;
+	}
+
+	/**
+	 * claims messages where message id or correlation id contains the message id
+	 * only messages received after the cursor position are scanned
+	 *
+	 * @param messageId
+	 * @param cursor
+	 * @return
+	 */
+	public List<MessageObject> claimByPartialMessageId(String messageId, Cursor cursor) {
+		List<MessageObject> claimed = new ArrayList<MessageObject>();
+		if (StringUtils.isEmpty(messageId))
+			return claimed;
+
+		for (MessageObject message : scanFrom(cursor)) {
+			String receivedMessageId = StringUtils.defaultString(message.getMessageId());
+			String receivedCorrelationId = StringUtils.defaultString(message.getCorrelationId());
+			boolean isMatch = receivedMessageId.contains(messageId) || receivedCorrelationId.contains(messageId);
+			if (isMatch && message.claim())
+				claimed.add(message);
+		}
+		return claimed;
+	}
+
+	/**
+	 * claims messages where message body contains all identifiers
+	 * only messages received after the cursor position are checked
+	 * if an identifier contains a delimited id token, eg. "orderId":"A1234", candidates are looked up from the token
+	 * index. otherwise messages are scanned
+	 *
+	 * @param identifiers
+	 * @param cursor
+	 * @return
+	 */
+	public List<MessageObject> claimByIdentifiers(List<String> identifiers, Cursor cursor) {
+		List<MessageObject> claimed = new ArrayList<MessageObject>();
+		if (identifiers.isEmpty())
+			return claimed;
+
+		Set<Long> candidates = getIdentifierCandidates(identifiers);
+		if (candidates == null) {
+			for (MessageObject message : scanFrom(cursor))
+				claimIfMatch(message, identifiers, claimed);
+			return claimed;
+		}
+
+		// messages are indexed before they are added, so all messages up to the last key are indexed
+		long from = cursor.position;
+		Entry<Long, MessageObject> last = messages.lastEntry();
+		if (last == null || last.getKey() <= from)
+			return claimed;
+		long to = last.getKey();
+		cursor.position = to;
+
+		List<Long> ids = new ArrayList<Long>();
+		for (Long id : candidates) {
+			if (id > from && id <= to)
+				ids.add(id);
+		}
+		Collections.sort(ids);
+		for (Long id : ids) {
+			MessageObject message = messages.get(id);
+			if (message != null)
+				claimIfMatch(message, identifiers, claimed);
+		}
+		for (MessageObject message : unindexed.subMap(from, false, to, true).values())
+			claimIfMatch(message, identifiers, claimed);
+		return claimed;
+	}
+
+	/**
+	 * returns all messages currently in store, ordered by arrival
+	 *
+	 * @return
+	 */
+	public Collection<MessageObject> getMessages() {
+		return messages.values();
+	}
+
+	public int size() {
+		return count.get();
+	}
+
+	public void clear() {
+		messages.clear();
+		idIndex.clear();
+		tokenIndex.clear();
+		unindexed.clear();
+		count.set(0);
+	}
+
+	/**
+	 * returns messages received after cursor and moves cursor to the latest message
+	 *
+	 * @param cursor
+	 * @return
+	 */
+	private Collection<MessageObject> scanFrom(Cursor cursor) {
+		ConcurrentNavigableMap<Long, MessageObject> tail = messages.tailMap(cursor.position, false);
+		if (tail.isEmpty())
+			return tail.values();
+
+		long last = tail.lastKey();
+		cursor.position = last;
+		return tail.headMap(last, true).values();
+	}
+
+	private static void claimIfMatch(MessageObject message, List<String> identifiers, List<MessageObject> claimed) {
+		if (isIdentifierMatch(StringUtils.defaultString(message.getMessage()), identifiers) && message.claim())
+			claimed.add(message);
+	}
+
+	/**
+	 * sequence numbers of indexed messages that may contain all identifiers. smallest posting of the delimited id
+	 * tokens of the identifiers
+	 * a token delimited on both sides in the identifier is a whole token in any message containing the identifier
+	 *
+	 * @param identifiers
+	 * @return null if no identifier contains a delimited id token
+	 */
+	private Set<Long> getIdentifierCandidates(List<String> identifiers) {
+		Set<Long> smallest = null;
+		for (String identifier : identifiers) {
+			List<String> tokens = getTokens(identifier);
+			// first And last tokens may be part of a longer token in the message
+			if (!identifier.isEmpty() && isTokenChar(identifier.charAt(0)))
+				tokens.remove(0);
+			if (!tokens.isEmpty() && isTokenChar(identifier.charAt(identifier.length() - 1)))
+				tokens.remove(tokens.size() - 1);
+
+			for (String token : tokens) {
+				if (!isIdToken(token))
+					continue;
+				Set<Long> posting = tokenIndex.get(token);
+				if (posting == null)
+					return Collections.emptySet();
+				if (smallest == null || posting.size() < smallest.size())
+					smallest = posting;
+			}
+		}
+		return smallest;
+	}
+
+	private void addToTokenIndex(long id, MessageObject message, Set<String> tokens) {
+		if (tokens.size() > MAX_INDEXED_TOKENS) {
+			unindexed.put(id, message);
+			return;
+		}
+		for (String token : tokens)
+			tokenIndex.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(id);
+	}
+
+	private void removeFromTokenIndex(long id) {
+		if (unindexed.remove(id) != null)
+			return;
+		MessageObject message = messages.get(id);
+		if (message == null)
+			return;
+		for (String token : getIdTokens(message.getMessage())) {
+			tokenIndex.computeIfPresent(token, (k, posting) -> {
+				posting.remove(id);
+				return posting.isEmpty() ? null : posting;
+			});
+		}
+	}
+
+	/**
+	 * id like tokens of text: letters, digits, "-" And "_", at least 4 characters with a digit. eg. A1234, uuid
+	 *
+	 * @param text
+	 * @return
+	 */
+	private static Set<String> getIdTokens(String text) {
+		Set<String> idTokens = new HashSet<String>();
+		for (String token : getTokens(StringUtils.defaultString(text))) {
+			if (isIdToken(token))
+				idTokens.add(token);
+		}
+		return idTokens;
+	}
+
+	private static List<String> getTokens(String text) {
+		List<String> tokens = new ArrayList<String>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean isToken = i < text.length() && isTokenChar(text.charAt(i));
+			if (isToken && start < 0)
+				start = i;
+			else if (!isToken && start >= 0) {
+				tokens.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private static boolean isTokenChar(char value) {
+		return Character.isLetterOrDigit(value) || value == '-' || value == '_';
+	}
+
+	private static boolean isIdToken(String token) {
+		if (token.length() < MIN_TOKEN_LENGTH)
+			return false;
+		for (int i = 0; i < token.length(); i++) {
+			if (Character.isDigit(token.charAt(i)))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isIdentifierMatch(String receiveMessage, List<String> identifierList) {
+		for (String identifier : identifierList) {
+			if (!receiveMessage.contains(identifier))
+				return false;
+		}
+		return true;
+	}
+
+	private void addToIndex(String key, MessageObject message) {
+		if (StringUtils.isEmpty(key))
+			return;
+		idIndex.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<MessageObject>()).add(message);
+	}
+
+	private void removeFromIndex(String key, MessageObject message) {
+		if (StringUtils.isEmpty(key))
+			return;
+		idIndex.computeIfPresent(key, (k, queue) -> {
+			queue.remove(message);
+			return queue.isEmpty() ? null : queue;
+		});
+	}
+
+	/**
+	 * evicts messages older than retention period or above max size
+	 * runs at most once per eviction interval
+	 */
+	private void evictIfRequired() {
+		long now = System.currentTimeMillis();
+		long last = lastEviction.get();
+		if (now - last < EVICTION_INTERVAL_MILLIS)
+			return;
+		if (!lastEviction.compareAndSet(last, now))
+			return;
+
+		long retentionMillis = getConfigValue(MESSAGE_STORE_RETENTION_SECONDS, DEFAULT_RETENTION_SECONDS) * 1000L;
+		int maxSize = getConfigValue(MESSAGE_STORE_MAX_SIZE, DEFAULT_MAX_SIZE);
+
+		Entry<Long, MessageObject> oldest;
+		while ((oldest = messages.firstEntry()) != null) {
+			MessageObject message = oldest.getValue();
+			boolean isExpired = now - message.getReceivedTime() > retentionMillis;
+			if (!isExpired && count.get() <= maxSize)
+				break;
+
+			removeFromTokenIndex(oldest.getKey());
+			if (messages.remove(oldest.getKey()) != null)
+				count.decrementAndGet();
+			removeFromIndex(message.getMessageId(), message);
+			removeFromIndex(message.getCorrelationId(), message);
+		}
+	}
+
+	private static int getConfigValue(String key, int defaultValue) {
+		String value = Config.getGlobalValue(key);
+		if (value.isEmpty())
+			return defaultValue;
+		return Integer.valueOf(value);
+	}
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 
+import core.apiCore.helpers.JsonDocument;
 import core.helpers.Helper;
 import core.support.logger.TestLog;
 import io.restassured.response.Response;
@@ -36,6 +37,7 @@ public class ServiceObject {
 	private Object serviceSteps = null;
 	private String parent = StringUtils.EMPTY; // name of the parent object to inherit from
 	private Response response = null; // rest api response
+	private JsonDocument responseDocument = null; // parsed response, shared by validations of the response
 	private RequestSpecification request = null; // rest api request
 	private List<String> errorMessages = new ArrayList<String>();
 	private Map<String, List<String>> headerMap = new HashMap<String, List<String>>();
@@ -263,6 +265,7 @@ public class ServiceObject {
 
 	public ServiceObject withResponse(Response response) {
 		this.response = response;
+		this.responseDocument = null;
 		return this;
 	}
 
@@ -325,6 +328,19 @@ public class ServiceObject {
 		return this.response;
 	}
 
+	/**
+	 * gets parsed response document. response body is read once per response
+	 * 
+	 * @return
+	 */
+	public JsonDocument getResponseDocument() {
+		if (this.response == null)
+			return null;
+		if (this.responseDocument == null)
+			this.responseDocument = JsonDocument.of(this.response);
+		return this.responseDocument;
+	}
+
 	public RequestSpecification getRequest() {
 		return this.request;
 	}
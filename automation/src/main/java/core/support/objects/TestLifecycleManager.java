@@ -0,0 +1,114 @@
+package core.support.objects;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.asserts.SoftAssert;
+
+import com.google.common.collect.ArrayListMultimap;
+
+import core.support.configReader.Config;
+import core.support.configReader.ConfigStore;
+import core.support.logger.LogObject;
+import core.support.objects.TestObject.testState;
+
+/**
+ * compacts finished test objects in TestObject.testInfo
+ * a test method is marked finished once its results are reported and batch logs are printed
+ * it is compacted when its thread starts the next test, so after method hooks still see the full test object
+ * compacted tests keep a summary: ids, names, status, failure and missing config variables
+ * parent objects (suite, class, csv file) are never compacted, children inherit from them
+ */
+public class TestLifecycleManager {
+
+	public static final String TEST_COMPACTION_ENABLED = "test.compaction.isEnabled";
+
+	// finished test of current thread, waiting to be compacted
+	private static final ThreadLocal<TestObject> finishedTest = new ThreadLocal<TestObject>();
+	private static final AtomicLong compactedCount = new AtomicLong();
+
+	/**
+	 * marks current test as finished. test is compacted when the thread starts
+	 * another test. only test methods are compacted
+	 */
+	public static void markFinished() {
+		if (!isEnabled() || !TestObject.isTestObjectSet())
+			return;
+
+		TestObject test = TestObject.getTestInfo();
+		if (!TestObject.getTestState(test.testId).equals(testState.testMethod))
+			return;
+
+		TestObject previous = finishedTest.get();
+		finishedTest.set(test);
+		if (previous != null && previous != test)
+			compact(previous);
+	}
+
+	/**
+	 * compacts finished test of current thread, before next test is initialized
+	 * test is kept if it is run again. eg. retry
+	 *
+	 * @param nextTestId
+	 */
+	public static void compactFinished(String nextTestId) {
+		TestObject test = finishedTest.get();
+		if (test == null || test.testId.equals(nextTestId))
+			return;
+
+		finishedTest.remove();
+		compact(test);
+	}
+
+	/**
+	 * replaces test data with empty values, keeping summary of the test
+	 * shared data, eg. config of csv tests inherited from parent, is not modified
+	 *
+	 * @param test
+	 */
+	public static void compact(TestObject test) {
+		if (test.isCompacted)
+			return;
+
+		test.config = new ConfigStore();
+		test.configKeys = ArrayListMultimap.create();
+		test.apiMap = new ConcurrentHashMap<String, ServiceObject>();
+		test.languageMap = new ConcurrentHashMap<String, String>();
+		test.testLog = new ArrayList<LogObject>();
+		test.testLogAll = new ArrayList<LogObject>();
+		test.testSteps = new ArrayList<>();
+		test.testSubSteps = new ArrayList<String>();
+		test.webDriverList = new ArrayList<>();
+		test.softAssert = new SoftAssert();
+		test.activeServiceObject = new ServiceObject();
+		test.screenRecorder = null;
+		test.logSettings = null;
+
+		// service object is kept for test name and parent, response is released
+		if (test.serviceObject != null)
+			test.serviceObject.withResponse(null).withRequest(null);
+
+		test.isCompacted = true;
+		compactedCount.incrementAndGet();
+	}
+
+	/**
+	 * number of compacted tests in current run
+	 *
+	 * @return
+	 */
+	public static long getCompactedCount() {
+		return compactedCount.get();
+	}
+
+	/**
+	 * compaction is enabled by default. test.compaction.isEnabled
+	 *
+	 * @return
+	 */
+	private static boolean isEnabled() {
+		String value = Config.getValue(TEST_COMPACTION_ENABLED);
+		return value.isEmpty() || Boolean.parseBoolean(value);
+	}
+}
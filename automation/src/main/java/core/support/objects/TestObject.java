@@ -1,8 +1,11 @@
 package core.support.objects;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
@@ -20,7 +23,10 @@ import com.google.common.collect.Multimap;
 import core.apiCore.helpers.CsvReader;
 import core.helpers.Helper;
 import core.support.configReader.Config;
+import core.support.configReader.ConfigStore;
 import core.support.logger.LogObject;
+import core.support.logger.LogSettings;
+import core.support.logger.StepRecorder;
 import core.uiCore.driverProperties.driverType.DriverType;
 import core.uiCore.drivers.AbstractDriver;
 import core.uiCore.drivers.AbstractDriverTestNG;
@@ -100,6 +106,7 @@ public class TestObject {
 	public Boolean isTestPass = false;
 	public Boolean isTestFail = false;
 	public Boolean isTestComplete = false;
+	public boolean isCompacted = false; // finished test, only summary is kept. see TestLifecycleManager
 	public Logger log;
 
 	// api test info
@@ -120,7 +127,8 @@ public class TestObject {
 	public ExtentTest testScenerio; // current test scenario
 	public List<ExtentTest> testSteps = new ArrayList<ExtentTest>(); // current test scenario
 	public List<String> testSubSteps = new ArrayList<String>(); // current test scenario
-	public List<String> missingConfigVars = new ArrayList<String>(); // keep track of missing config variables
+	public StepRecorder stepRecorder = new StepRecorder(); // step nodes pending merge into report
+	public Set<String> missingConfigVars = Collections.synchronizedSet(new LinkedHashSet<String>()); // keep track of missing config variables
 
 	// screen recorder for web
 	public ScreenRecorder screenRecorder = null;
@@ -128,10 +136,11 @@ public class TestObject {
 
 	public List<LogObject> testLog = new ArrayList<LogObject>();
 	public List<LogObject> testLogAll = new ArrayList<LogObject>();
+	public LogSettings logSettings = null; // log settings snapshot, read from config on first log
 
 	public Map<String, String> languageMap = new ConcurrentHashMap<String, String>();
 	public Map<String, ServiceObject> apiMap = new ConcurrentHashMap<String, ServiceObject>();// api keywords
-	public Map<String, Object> config = new ConcurrentHashMap<String, Object>();
+	public Map<String, Object> config = new ConfigStore(); // layered on parent config
 	public Multimap<String, String> configKeys = ArrayListMultimap.create();
 	public List<TestObject> testObjects = new ArrayList<TestObject>(); // parent test objects keeps track of child test objects
 
@@ -166,6 +175,9 @@ public class TestObject {
 	 */
 	public static void initializeTest(DriverObject driver, String testId) {
 
+		// compact previous finished test of current thread
+		TestLifecycleManager.compactFinished(testId);
+
 		if (isBeforeTest(testId)) { // testobject is initiated only once
 			TestObject test = new TestObject();
 
@@ -213,8 +225,9 @@ public class TestObject {
 	public static TestObject inheritParent(DriverObject driver, String testId) {
 		TestObject test = new TestObject();
 		// add config object from previous state to new test object
+		// config is layered on the parent config, not copied
 		Map<String, Object> configValue = getTestObjectInheritence(driver, testId).config;
-		test.config.putAll(configValue);
+		test.config = ConfigStore.inherit(configValue);
 
 		return test;
 	}
@@ -469,7 +482,9 @@ public class TestObject {
 
 	public static boolean isBeforeTest(String testId) {
 		TestObject test = testInfo.get(testId);
-		return (test == null);
+
+		// compacted test is initialized again if it runs again
+		return (test == null || test.isCompacted);
 	}
 
 	public static boolean isValidTestId(String testId) {
@@ -30,6 +30,7 @@ import core.uiCore.WebDriverSetup;
 import core.uiCore.driverProperties.driverType.DriverType;
 import core.uiCore.driverProperties.capabilities.AndroidCapability;
 import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
+import core.uiCore.webElement.ElementLookup;
 import io.appium.java_client.MobileElement;
 import junit.framework.Assert;
 
@@ -241,7 +242,8 @@ public class AbstractDriverJunit {
 				driver = new WebDriverSetup().getWebDriverByType(driverObject);
 
 				// set implicit Wait wait to be the minimum of our explicit wait
-				driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+				// zero if element lookups poll on the client
+				ElementLookup.setImplicitWait(driver, 5);
 				driver.manage().timeouts().pageLoadTimeout(AbstractDriver.TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
 			} catch (Exception e) {
@@ -292,7 +294,7 @@ public class AbstractDriverJunit {
 	}
 
 	private void letRetryKnowAboutReports() {
-		retry.setExtendReport(TestObject.getTestInfo().testScenerio, step.get(), extent);
+		retry.setExtendReport(TestObject.getTestInfo().testScenerio, TestLog.getTestStep(), extent);
 		// retry.setLogger(log.get());
 		retry.setWebDriver(getWebDriver());
 	}
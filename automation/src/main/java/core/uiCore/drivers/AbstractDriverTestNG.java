@@ -32,6 +32,7 @@ import core.uiCore.driverProperties.driverType.DriverType;
 import core.uiCore.driverProperties.capabilities.AndroidCapability;
 import core.uiCore.driverProperties.capabilities.WebCapability;
 import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
+import core.uiCore.webElement.ElementLookup;
 
 @Listeners({core.support.listeners.TestListener.class, core.support.listeners.TestResultListener.class})
 
@@ -89,7 +90,11 @@ public class AbstractDriverTestNG implements ITest {
 		boolean condition3 = AbstractDriver.getWebDriver() == null;
 
 		if (condition1 || condition2 || condition3) {
-			setWebDriver(createDriver(driverObject));
+			// web drivers are borrowed from the driver pool, launched in the background
+			if (DriverPool.isEnabled(driverObject))
+				setWebDriver(DriverPool.borrow(driverObject, AbstractDriverTestNG::createDriver));
+			else
+				setWebDriver(createDriver(driverObject));
 			driverObject.withIsAvailable(false);
 			DriverObject.initializeDriverList(driverObject, TestObject.getTestInfo().testId); // driver is not available
 			TestObject.getTestInfo().withIsFirstRun(true);
@@ -256,7 +261,8 @@ public class AbstractDriverTestNG implements ITest {
 				driver = new WebDriverSetup().getWebDriverByType(driverObject);
 
 				// set implicit Wait wait to be the minimum of our explicit wait
-				driver.manage().timeouts().implicitlyWait(AbstractDriver.TIMEOUT_IMPLICIT_SECONDS, TimeUnit.SECONDS);
+				// zero if element lookups poll on the client
+				ElementLookup.setImplicitWait(driver, AbstractDriver.TIMEOUT_IMPLICIT_SECONDS);
 				
 				if(Helper.mobile.isWebDriver())
 					driver.manage().timeouts().pageLoadTimeout(AbstractDriver.TIMEOUT_SECONDS, TimeUnit.SECONDS);
@@ -327,7 +333,7 @@ public class AbstractDriverTestNG implements ITest {
 
 	private void letRetryKnowAboutReports() {
 
-		retry.setExtendReport(TestObject.getTestInfo().testScenerio, step.get());
+		retry.setExtendReport(TestObject.getTestInfo().testScenerio, TestLog.getTestStep());
 	}
 
 	@Override
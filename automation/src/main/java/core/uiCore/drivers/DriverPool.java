@@ -0,0 +1,427 @@
+package core.uiCore.drivers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import core.support.configReader.Config;
+import core.support.configReader.ConfigStore;
+import core.support.logger.TestLog;
+import core.support.objects.DriverObject;
+import core.support.objects.TestObject;
+import core.uiCore.driverProperties.driverType.DriverType;
+import core.uiCore.driverProperties.globalProperties.CrossPlatformProperties;
+import core.uiCore.webElement.LocatorCache;
+
+/**
+ * pool of web driver sessions, used when single sign in is disabled
+ * drivers are grouped by profile: driver type, browser, driver version and capabilities that do not change per test
+ * each profile holds up to global.parallelTestCount drivers. when a profile is first used, the remaining drivers are
+ * launched in the background
+ * idle And launching drivers of all profiles are limited to web.driverPool.maxIdle, default global.parallelTestCount
+ * after a passed test, its driver is reset (windows, cookies, storage) And returned to the pool instead of quitting
+ * drivers of failed tests are quit, as before
+ */
+public class DriverPool {
+
+	public static final String DRIVER_POOL_ENABLED = "web.driverPool.isEnabled";
+	public static final String DRIVER_POOL_MAX_IDLE = "web.driverPool.maxIdle";
+
+	// capabilities set per test, not part of the driver profile. eg. web.capabilities.name is the test name
+	private static final Set<String> PER_TEST_CAPABILITIES = new HashSet<String>(
+			Arrays.asList("name", "testName", "sessionName"));
+
+	private static final String RESET_STORAGE_SCRIPT = "try { window.localStorage.clear(); } catch (e) {}"
+			+ "try { window.sessionStorage.clear(); } catch (e) {}";
+	private static final long WAIT_PARK_MILLIS = 100;
+	private static final String LAUNCH_TEST_PREFIX = "driverPool-launch";
+	private static final AtomicInteger launchCount = new AtomicInteger();
+
+	// idle drivers by profile
+	private static final Map<String, Queue<WebDriver>> idleDrivers = new ConcurrentHashMap<String, Queue<WebDriver>>();
+
+	// drivers owned by the pool, idle or leased. key: driver, value: profile
+	private static final Map<WebDriver, String> pooledDrivers = new ConcurrentHashMap<WebDriver, String>();
+
+	// drivers per profile, including drivers being launched
+	private static final Map<String, AtomicInteger> profileSizes = new ConcurrentHashMap<String, AtomicInteger>();
+	private static final Map<String, AtomicInteger> launching = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private static volatile ExecutorService launcher = null;
+
+	/**
+	 * creates a new driver. eg. AbstractDriverTestNG.createDriver
+	 */
+	public interface DriverFactory {
+		WebDriver create(DriverObject driverObject) throws Exception;
+	}
+
+	/**
+	 * pool is used for web drivers when single sign in is disabled
+	 * pool is enabled by default. web.driverPool.isEnabled
+	 *
+	 * @param driverObject
+	 * @return
+	 */
+	public static boolean isEnabled(DriverObject driverObject) {
+		String value = Config.getValue(DRIVER_POOL_ENABLED);
+		if (!value.isEmpty() && !Boolean.parseBoolean(value))
+			return false;
+		if (CrossPlatformProperties.isSingleSignIn())
+			return false;
+		return DriverType.LOCAL_WEBDRIVER.equals(driverObject.driverType)
+				|| DriverType.REMOTE_WEBDRIVER.equals(driverObject.driverType);
+	}
+
+	/**
+	 * borrows an idle driver of the same profile. if none is idle, waits for drivers being launched, or creates a
+	 * driver on the current thread. remaining drivers of the profile are launched in the background
+	 *
+	 * @param driverObject
+	 * @param factory
+	 * @return
+	 * @throws Exception
+	 */
+	public static WebDriver borrow(DriverObject driverObject, DriverFactory factory) throws Exception {
+		String profile = getProfile(driverObject);
+		Queue<WebDriver> idle = getIdleQueue(profile);
+
+		WebDriver driver = poll(idle, profile);
+		if (driver != null)
+			return driver;
+
+		prelaunch(driverObject, factory, profile);
+
+		// wait for background launches, a launched driver is added to the idle queue
+		while (getCounter(launching, profile).get() > 0) {
+			driver = poll(idle, profile);
+			if (driver != null)
+				return driver;
+			TimeUnit.MILLISECONDS.sleep(WAIT_PARK_MILLIS);
+		}
+		driver = poll(idle, profile);
+		if (driver != null)
+			return driver;
+
+		// pool is full or launches failed. driver is created for this test
+		driver = factory.create(driverObject);
+		if (getCounter(profileSizes, profile).incrementAndGet() <= getMaxSize())
+			pooledDrivers.put(driver, profile);
+		else
+			getCounter(profileSizes, profile).decrementAndGet();
+		return driver;
+	}
+
+	/**
+	 * returns true if driver belongs to the pool
+	 *
+	 * @param driver
+	 * @return
+	 */
+	public static boolean isPooled(WebDriver driver) {
+		return driver != null && pooledDrivers.containsKey(driver);
+	}
+
+	/**
+	 * resets driver And returns it to the pool. driver is quit if reset fails
+	 *
+	 * @param driver
+	 * @return true if driver was returned to the pool
+	 */
+	public static boolean release(WebDriver driver) {
+		String profile = driver == null ? null : pooledDrivers.get(driver);
+		if (profile == null)
+			return false;
+
+		LocatorCache.invalidate(driver);
+		if (!reset(driver)) {
+			remove(driver);
+			quit(driver);
+			return false;
+		}
+
+		// idle drivers of other profiles are quit first, the released driver is quit if none is left
+		while (getIdleCount() >= getMaxIdle()) {
+			if (!quitIdle(profile)) {
+				remove(driver);
+				quit(driver);
+				return false;
+			}
+		}
+		getIdleQueue(profile).offer(driver);
+		return true;
+	}
+
+	/**
+	 * removes driver from the pool. eg. driver is quit
+	 *
+	 * @param driver
+	 */
+	public static void remove(WebDriver driver) {
+		if (driver == null)
+			return;
+		String profile = pooledDrivers.remove(driver);
+		if (profile == null)
+			return;
+		getCounter(profileSizes, profile).decrementAndGet();
+		getIdleQueue(profile).remove(driver);
+	}
+
+	/**
+	 * quits idle drivers. eg. at end of suite
+	 */
+	public static void quitAll() {
+		for (Queue<WebDriver> idle : idleDrivers.values()) {
+			WebDriver driver;
+			while ((driver = idle.poll()) != null) {
+				remove(driver);
+				quit(driver);
+			}
+		}
+	}
+
+	/**
+	 * number of idle drivers for all profiles
+	 *
+	 * @return
+	 */
+	public static int getIdleCount() {
+		int count = 0;
+		for (Queue<WebDriver> idle : idleDrivers.values())
+			count += idle.size();
+		return count;
+	}
+
+	/**
+	 * number of drivers being launched for all profiles
+	 *
+	 * @return
+	 */
+	private static int getLaunchingCount() {
+		int count = 0;
+		for (AtomicInteger profileLaunching : launching.values())
+			count += profileLaunching.get();
+		return count;
+	}
+
+	/**
+	 * quits one idle driver of a profile other than the given profile
+	 *
+	 * @param keepProfile
+	 * @return false if no idle driver of another profile was found
+	 */
+	private static boolean quitIdle(String keepProfile) {
+		for (Map.Entry<String, Queue<WebDriver>> entry : idleDrivers.entrySet()) {
+			if (entry.getKey().equals(keepProfile))
+				continue;
+			WebDriver driver = entry.getValue().poll();
+			if (driver != null) {
+				remove(driver);
+				quit(driver);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * launches drivers in the background, up to the pool size of the profile
+	 * one slot is kept for the current test. no drivers are launched while idle And launching drivers of all profiles
+	 * reach web.driverPool.maxIdle
+	 *
+	 * @param driverObject
+	 * @param factory
+	 * @param profile
+	 */
+	private static void prelaunch(DriverObject driverObject, DriverFactory factory, String profile) {
+		AtomicInteger size = getCounter(profileSizes, profile);
+		int maxSize = getMaxSize();
+		Map<String, Object> testConfig = TestObject.getTestInfo().config;
+
+		while (true) {
+			int current = size.get();
+			if (current >= maxSize - 1 || getIdleCount() + getLaunchingCount() >= getMaxIdle())
+				return;
+			if (!size.compareAndSet(current, current + 1))
+				continue;
+
+			// snapshot of test config, taken on the test thread. the test may finish And be compacted before the launch
+			ConfigStore config = ConfigStore.inherit(testConfig);
+			getCounter(launching, profile).incrementAndGet();
+			getLauncher(maxSize).execute(() -> launch(driverObject, factory, profile, config));
+		}
+	}
+
+	/**
+	 * creates driver on launcher thread
+	 * launch runs as its own test object, so its config And logs are not shared with the test that started it
+	 *
+	 * @param driverObject
+	 * @param factory
+	 * @param profile
+	 * @param config
+	 */
+	private static void launch(DriverObject driverObject, DriverFactory factory, String profile, ConfigStore config) {
+		String launchId = LAUNCH_TEST_PREFIX + "-" + launchCount.incrementAndGet();
+		TestObject launchTest = new TestObject().withTestId(launchId).withTestName(launchId);
+		launchTest.config = config;
+		launchTest.log = Logger.getLogger("");
+		TestObject.testInfo.put(launchId, launchTest);
+		TestObject.setTestId(launchId);
+		try {
+			WebDriver driver = factory.create(driverObject);
+			pooledDrivers.put(driver, profile);
+			getIdleQueue(profile).offer(driver);
+		} catch (Throwable e) {
+			getCounter(profileSizes, profile).decrementAndGet();
+			TestLog.ConsoleLog("background driver launch failed: " + e.getMessage());
+		} finally {
+			getCounter(launching, profile).decrementAndGet();
+			TestLog.printBatchToConsole(launchId);
+			TestObject.testInfo.remove(launchId);
+		}
+	}
+
+	/**
+	 * polls idle queue, skipping drivers whose session has ended
+	 *
+	 * @param idle
+	 * @param profile
+	 * @return
+	 */
+	private static WebDriver poll(Queue<WebDriver> idle, String profile) {
+		WebDriver driver;
+		while ((driver = idle.poll()) != null) {
+			if (isAlive(driver))
+				return driver;
+			remove(driver);
+			quit(driver);
+		}
+		return null;
+	}
+
+	private static void quit(WebDriver driver) {
+		try {
+			if (!driver.toString().contains("(null)"))
+				driver.quit();
+		} catch (Exception e) {
+			TestLog.ConsoleLogDebug(e.getMessage());
+		}
+	}
+
+	/**
+	 * closes extra windows, deletes cookies, clears local And session storage, And
+	 * loads a blank page
+	 *
+	 * @param driver
+	 * @return false if reset failed
+	 */
+	private static boolean reset(WebDriver driver) {
+		try {
+			List<String> handles = new ArrayList<String>(driver.getWindowHandles());
+			for (int i = 1; i < handles.size(); i++) {
+				driver.switchTo().window(handles.get(i));
+				driver.close();
+			}
+			driver.switchTo().window(handles.get(0));
+			driver.manage().deleteAllCookies();
+			if (driver instanceof JavascriptExecutor)
+				((JavascriptExecutor) driver).executeScript(RESET_STORAGE_SCRIPT);
+			driver.get("about:blank");
+			return true;
+		} catch (Exception e) {
+			TestLog.ConsoleLogDebug("driver reset failed: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private static boolean isAlive(WebDriver driver) {
+		try {
+			return !driver.toString().contains("(null)") && driver.getWindowHandles().size() > 0;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * driver profile: driver type, browser, driver version and capabilities
+	 * capabilities set per test, eg. test name, are excluded, so drivers are shared between tests
+	 *
+	 * @param driverObject
+	 * @return
+	 */
+	private static String getProfile(DriverObject driverObject) {
+		Map<String, Object> capabilities = new TreeMap<String, Object>();
+		if (driverObject.capabilities != null) {
+			String testName = TestObject.getTestInfo().testName;
+			for (Map.Entry<String, ?> entry : driverObject.capabilities.asMap().entrySet()) {
+				Object value = entry.getValue();
+				if (PER_TEST_CAPABILITIES.contains(entry.getKey())
+						|| (value != null && testName != null && value.toString().equals(testName)))
+					continue;
+				capabilities.put(entry.getKey(), value);
+			}
+		}
+		return driverObject.driverType + "|" + driverObject.browserType + "|" + driverObject.driverVersion + "|"
+				+ capabilities;
+	}
+
+	/**
+	 * pool size per profile. global.parallelTestCount, minimum 1
+	 *
+	 * @return
+	 */
+	private static int getMaxSize() {
+		return Math.max(1, CrossPlatformProperties.getParallelTests());
+	}
+
+	/**
+	 * max idle And launching drivers of all profiles. web.driverPool.maxIdle, default global.parallelTestCount
+	 *
+	 * @return
+	 */
+	private static int getMaxIdle() {
+		int maxIdle = Config.getIntValue(DRIVER_POOL_MAX_IDLE);
+		return maxIdle > 0 ? maxIdle : getMaxSize();
+	}
+
+	private static Queue<WebDriver> getIdleQueue(String profile) {
+		return idleDrivers.computeIfAbsent(profile, k -> new ConcurrentLinkedQueue<WebDriver>());
+	}
+
+	private static AtomicInteger getCounter(Map<String, AtomicInteger> counters, String profile) {
+		return counters.computeIfAbsent(profile, k -> new AtomicInteger());
+	}
+
+	private static ExecutorService getLauncher(int threads) {
+		if (launcher != null)
+			return launcher;
+
+		synchronized (DriverPool.class) {
+			if (launcher == null) {
+				AtomicInteger count = new AtomicInteger();
+				launcher = Executors.newFixedThreadPool(threads, runnable -> {
+					Thread thread = new Thread(runnable, "autonomx-driver-pool-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			return launcher;
+		}
+	}
+}
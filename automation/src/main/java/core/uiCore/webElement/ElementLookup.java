@@ -0,0 +1,285 @@
+package core.uiCore.webElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import core.helpers.Element;
+import core.support.configReader.Config;
+import io.appium.java_client.AppiumDriver;
+
+/**
+ * element lookup with client side polling
+ * drivers are kept at zero implicit wait, lookups poll until their own deadline, so changing the lookup timeout
+ * does not need a driver call
+ * on web drivers, multiple locators and first visible element filtering are resolved in one script call
+ * appium and windows drivers use driver lookups with the same polling
+ */
+public class ElementLookup {
+
+	public static final String CLIENT_POLLING_ENABLED = "global.lookup.clientPolling.isEnabled";
+
+	private static final long MIN_POLL_MILLIS = 50;
+	private static final long MAX_POLL_MILLIS = 500;
+
+	public static final List<Element.LocatorType> SCRIPT_LOCATORS = Arrays.asList(Element.LocatorType.css,
+			Element.LocatorType.xpath, Element.LocatorType.id, Element.LocatorType.name,
+			Element.LocatorType.classType);
+
+	// drivers set to zero implicit wait
+	private static final Set<WebDriver> pollingDrivers = Collections
+			.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<WebDriver, Boolean>()));
+
+	/**
+	 * javascript functions to find elements by locator type and value
+	 * findAll(locator, context): elements of a single locator
+	 * find(locators, context): elements of the first locator with results
+	 * isVisible(element): approximation of webdriver isDisplayed
+	 */
+	public static final String FIND_FUNCTIONS =
+			"function findAll(locator, context) {"
+			+ "  var type = locator[0], value = locator[1], found = [];"
+			+ "  try {"
+			+ "    if (type == 'xpath') {"
+			+ "      var result = document.evaluate(value, context, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+			+ "      for (var j = 0; j < result.snapshotLength; j++) found.push(result.snapshotItem(j));"
+			+ "    } else if (type == 'classType') {"
+			+ "      found = context.getElementsByClassName(value);"
+			+ "    } else if (type == 'css') {"
+			+ "      found = context.querySelectorAll(value);"
+			+ "    } else {"
+			+ "      found = context.querySelectorAll('[' + type + '=\"' + value.replace(/\"/g, '\\\\\"') + '\"]');"
+			+ "    }"
+			+ "  } catch (e) { found = []; }"
+			+ "  return Array.prototype.slice.call(found);"
+			+ "}"
+			+ "function find(locators, context) {"
+			+ "  for (var i = 0; i < locators.length; i++) {"
+			+ "    var found = findAll(locators[i], context);"
+			+ "    if (found.length > 0) return found;"
+			+ "  }"
+			+ "  return [];"
+			+ "}"
+			+ "function isVisible(e) {"
+			+ "  if (!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)) return false;"
+			+ "  var style = window.getComputedStyle(e);"
+			+ "  return style.visibility != 'hidden' && style.opacity != '0';"
+			+ "}";
+
+	// first visible element of each locator, or the element if the locator has a single match
+	private static final String FIRST_VISIBLE_SCRIPT = FIND_FUNCTIONS
+			+ "var locators = arguments[0], context = arguments[1] || document, result = [];"
+			+ "for (var i = 0; i < locators.length; i++) {"
+			+ "  var found = findAll(locators[i], context);"
+			+ "  if (found.length == 0) continue;"
+			+ "  var element = found.length == 1 ? found[0] : null;"
+			+ "  for (var j = 0; element == null && j < found.length; j++) if (isVisible(found[j])) element = found[j];"
+			+ "  if (element != null) result.push(element);"
+			+ "}"
+			+ "return result;";
+
+	// index of first locator with matches, and its elements
+	private static final String FIRST_MATCH_SCRIPT = FIND_FUNCTIONS
+			+ "var locators = arguments[0], context = arguments[1] || document;"
+			+ "for (var i = 0; i < locators.length; i++) {"
+			+ "  var found = findAll(locators[i], context);"
+			+ "  if (found.length > 0) return [i, found];"
+			+ "}"
+			+ "return [-1, []];";
+
+	private static final String FIRST_VISIBLE_INDEX_SCRIPT = FIND_FUNCTIONS
+			+ "var elements = arguments[0];"
+			+ "for (var i = 0; i < elements.length; i++) if (isVisible(elements[i])) return i;"
+			+ "return -1;";
+
+	/**
+	 * elements of the first locator with matches
+	 */
+	public static class LocatorMatch {
+		public final int locatorIndex; // -1 if no locator has matches
+		public final List<WebElement> elements;
+
+		LocatorMatch(int locatorIndex, List<WebElement> elements) {
+			this.locatorIndex = locatorIndex;
+			this.elements = elements;
+		}
+	}
+
+	/**
+	 * sets implicit wait of new driver. with client polling enabled, driver is set to zero implicit wait
+	 * client polling is enabled by default. global.lookup.clientPolling.isEnabled
+	 *
+	 * @param driver
+	 * @param implicitWaitSeconds implicit wait if client polling is disabled
+	 */
+	public static void setImplicitWait(WebDriver driver, long implicitWaitSeconds) {
+		if (isEnabled()) {
+			driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+			pollingDrivers.add(driver);
+		} else
+			driver.manage().timeouts().implicitlyWait(implicitWaitSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * returns true if driver is set to zero implicit wait, and lookups poll on the client
+	 *
+	 * @param driver
+	 * @return
+	 */
+	public static boolean isClientPolling(WebDriver driver) {
+		return driver != null && pollingDrivers.contains(driver);
+	}
+
+	/**
+	 * returns true if element can be found by script. web drivers only, all locators need a supported type
+	 *
+	 * @param driver
+	 * @param element
+	 * @return
+	 */
+	public static boolean isScriptSupported(WebDriver driver, EnhancedBy element) {
+		if (!(driver instanceof JavascriptExecutor) || driver instanceof AppiumDriver)
+			return false;
+		if (element == null || element.elementObject.isEmpty())
+			return false;
+
+		for (ElementObject elementObject : element.elementObject) {
+			if (elementObject.locator == null || !SCRIPT_LOCATORS.contains(elementObject.locatorType))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * locator type and value pairs, in fallback order. used as script argument
+	 *
+	 * @param element
+	 * @return
+	 */
+	public static List<List<String>> getLocators(EnhancedBy element) {
+		List<List<String>> locators = new ArrayList<List<String>>();
+		for (ElementObject elementObject : element.elementObject)
+			locators.add(Arrays.asList(elementObject.locatorType.name(), elementObject.locator));
+		return locators;
+	}
+
+	/**
+	 * finds elements, polling until elements are found or timeout is reached
+	 *
+	 * @param context       driver or parent element
+	 * @param by
+	 * @param timeoutMillis
+	 * @return
+	 */
+	public static List<WebElement> findElements(SearchContext context, By by, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long pollMillis = MIN_POLL_MILLIS;
+		while (true) {
+			List<WebElement> elements = context.findElements(by);
+			if (!elements.isEmpty() || !pause(deadline, pollMillis))
+				return elements;
+			pollMillis = Math.min(MAX_POLL_MILLIS, pollMillis * 2);
+		}
+	}
+
+	/**
+	 * finds the first visible element of each locator in one script call, polling until an element is found
+	 *
+	 * @param driver
+	 * @param element
+	 * @param context       parent element, null for page
+	 * @param timeoutMillis
+	 * @return elements, one per matching locator
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<WebElement> findFirstVisible(WebDriver driver, EnhancedBy element, WebElement context,
+			long timeoutMillis) {
+		List<List<String>> locators = getLocators(element);
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long pollMillis = MIN_POLL_MILLIS;
+		while (true) {
+			List<WebElement> elements = (List<WebElement>) ((JavascriptExecutor) driver)
+					.executeScript(FIRST_VISIBLE_SCRIPT, locators, context);
+			if (!elements.isEmpty() || !pause(deadline, pollMillis))
+				return new ArrayList<WebElement>(elements);
+			pollMillis = Math.min(MAX_POLL_MILLIS, pollMillis * 2);
+		}
+	}
+
+	/**
+	 * finds elements of the first locator with matches in one script call, polling until elements are found
+	 *
+	 * @param driver
+	 * @param element
+	 * @param context       parent element, null for page
+	 * @param timeoutMillis
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static LocatorMatch findFirstMatch(WebDriver driver, EnhancedBy element, WebElement context,
+			long timeoutMillis) {
+		List<List<String>> locators = getLocators(element);
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long pollMillis = MIN_POLL_MILLIS;
+		while (true) {
+			List<Object> result = (List<Object>) ((JavascriptExecutor) driver).executeScript(FIRST_MATCH_SCRIPT,
+					locators, context);
+			int locatorIndex = ((Number) result.get(0)).intValue();
+			if (locatorIndex != -1 || !pause(deadline, pollMillis))
+				return new LocatorMatch(locatorIndex, new ArrayList<WebElement>((List<WebElement>) result.get(1)));
+			pollMillis = Math.min(MAX_POLL_MILLIS, pollMillis * 2);
+		}
+	}
+
+	/**
+	 * index of the first visible element in one script call
+	 *
+	 * @param driver
+	 * @param elements
+	 * @return index, -1 if no element is visible
+	 */
+	public static int getFirstVisibleIndex(WebDriver driver, List<WebElement> elements) {
+		Object index = ((JavascriptExecutor) driver).executeScript(FIRST_VISIBLE_INDEX_SCRIPT, elements);
+		return ((Number) index).intValue();
+	}
+
+	/**
+	 * client polling is enabled by default. global.lookup.clientPolling.isEnabled
+	 *
+	 * @return
+	 */
+	private static boolean isEnabled() {
+		String value = Config.getValue(CLIENT_POLLING_ENABLED);
+		return value.isEmpty() || Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * waits for poll interval, without passing deadline
+	 *
+	 * @param deadline
+	 * @param pollMillis
+	 * @return false if deadline is reached
+	 */
+	private static boolean pause(long deadline, long pollMillis) {
+		long remaining = deadline - System.currentTimeMillis();
+		if (remaining <= 0)
+			return false;
+		try {
+			Thread.sleep(Math.min(pollMillis, remaining));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		return true;
+	}
+}
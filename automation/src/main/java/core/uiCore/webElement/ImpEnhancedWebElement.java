@@ -12,6 +12,7 @@ import org.openqa.selenium.NoSuchSessionException;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
@@ -36,6 +37,11 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 	private List<WebElement> parentElements;
 	private List<WebElement> current;
 	public Element.LocatorType locatorType;
+	
+	// lookup timeout when driver is at zero implicit wait. see ElementLookup
+	private final boolean isClientPolling;
+	private long lookupTimeoutMillis = TimeUnit.SECONDS.toMillis(AbstractDriver.TIMEOUT_IMPLICIT_SECONDS);
+	private String cacheKey = null; // see LocatorCache
 
 	public ImpEnhancedWebElement(EnhancedBy parent, int parentIndex, WebDriver webDriver, EnhancedBy element) {
 		this.elementName = element.name;
@@ -45,6 +51,7 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 		this.parentIndex = parentIndex;
 		this.current = new ArrayList<WebElement>();
 		parentElements = new ArrayList<WebElement>();
+		this.isClientPolling = ElementLookup.isClientPolling(webDriver);
 	}
 
 	@Override
@@ -525,6 +532,10 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 
 	private void resetElement() {
 		this.current = new ArrayList<WebElement>();
+		
+		// cached element may be stale
+		if (cacheKey != null)
+			LocatorCache.invalidate(webDriver, cacheKey);
 	}
 
 	@Override
@@ -566,7 +577,7 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 
 			try {
 				this.current = new ArrayList<WebElement>();
-				this.parentElements = webDriver.findElements(by);
+				this.parentElements = findElements(webDriver, by);
 
 				// if no element found, go to next locator
 				if (this.parentElements.isEmpty())
@@ -585,9 +596,32 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 	 * @return
 	 */
 	public List<WebElement> getElement() {
-		List<WebElement> elements = new ArrayList<WebElement>();
 		if (current != null && !current.isEmpty())
 			return this.current;
+		
+		if (!isCacheLookup())
+			return resolveElement();
+		
+		// elements resolved earlier on the same page
+		List<WebElement> cached = LocatorCache.get(webDriver, getCacheKey());
+		if (cached != null) {
+			this.current = cached;
+			return this.current;
+		}
+		resolveElement();
+		LocatorCache.put(webDriver, getCacheKey(), this.current);
+		return this.current;
+	}
+	
+	/**
+	 * finds the first visible element of each locator
+	 * if a locator matched last time, it is tried first, And other locators are
+	 * skipped when it matches
+	 * 
+	 * @return
+	 */
+	private List<WebElement> resolveElement() {
+		List<WebElement> elements = new ArrayList<WebElement>();
 
 		// get parent elements if applicable
 		getParentElement();
@@ -596,18 +630,32 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 		if (this.element.elementObject.size() > 1) {
 			setTimeout(1, TimeUnit.MILLISECONDS);
 		}
+		
+		// all locators And visibility are resolved in one script call
+		if (isScriptLookup()) {
+			try {
+				this.current = ElementLookup.findFirstVisible(webDriver, element, getContextElement(), lookupTimeoutMillis);
+				setLocator(this.element.elementObject.size() - 1);
+				setTimeout(AbstractDriver.TIMEOUT_IMPLICIT_SECONDS, TimeUnit.SECONDS);
+				return this.current;
+			} catch (Exception e) {
+				e.getMessage();
+			}
+		}
 
-		for (ElementObject elementObject : this.element.elementObject) {
+		int matchedLocator = LocatorCache.getMatchedLocator(this.element);
+		for (int i : getLocatorOrder(matchedLocator)) {
+			ElementObject elementObject = this.element.elementObject.get(i);
 			this.by = elementObject.by;
 			this.locatorType = elementObject.locatorType;
 
 			try {
 				if (!this.parentElements.isEmpty()) {
 					this.current = new ArrayList<WebElement>();
-					elements = parentElements.get(parentIndex).findElements(by);
+					elements = findElements(parentElements.get(parentIndex), by);
 				} else if (current == null || current.isEmpty()) {
 					this.current = new ArrayList<WebElement>();
-					elements = webDriver.findElements(by);
+					elements = findElements(webDriver, by);
 				}
 				// if no element found, go to next locator
 				if (elements.isEmpty())
@@ -615,6 +663,11 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 				// get first visible element
 				WebElement element = getFirstVisibleElement(elements);
 				this.current.add(element);
+				
+				if (i == matchedLocator)
+					break;
+				if (this.current.size() == 1)
+					setMatchedLocator(i);
 			} catch (Exception e) {
 				e.getMessage();
 			}
@@ -634,20 +687,36 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 		if (this.element.elementObject.size() > 1) {
 			setTimeout(1, TimeUnit.MILLISECONDS);
 		}
+		
+		// first locator with matches is resolved in one script call
+		if (isScriptLookup()) {
+			try {
+				ElementLookup.LocatorMatch match = ElementLookup.findFirstMatch(webDriver, element, getContextElement(), lookupTimeoutMillis);
+				this.current = match.elements;
+				setLocator(match.locatorIndex == -1 ? this.element.elementObject.size() - 1 : match.locatorIndex);
+				setTimeout(AbstractDriver.TIMEOUT_IMPLICIT_SECONDS, TimeUnit.SECONDS);
+				return this.current;
+			} catch (Exception e) {
+				e.getMessage();
+			}
+		}
 
-		for (ElementObject elementObject : this.element.elementObject) {
+		for (int i : getLocatorOrder(LocatorCache.getMatchedLocator(this.element))) {
 			try {
+				ElementObject elementObject = this.element.elementObject.get(i);
 				this.by = elementObject.by;
 				this.locatorType = elementObject.locatorType;
 
 				if (!this.parentElements.isEmpty()) {
-					this.current = parentElements.get(parentIndex).findElements(by);
+					this.current = findElements(parentElements.get(parentIndex), by);
 				} else if (current == null || current.isEmpty()) {
-					this.current = webDriver.findElements(by);
+					this.current = findElements(webDriver, by);
 				}
 				// if element is found, exit loop
-				if (!this.current.isEmpty())
+				if (!this.current.isEmpty()) {
+					setMatchedLocator(i);
 					break;
+				}
 			} catch (Exception e) {
 				e.getMessage();
 			}
@@ -666,6 +735,18 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 		setTimeout(1, TimeUnit.MILLISECONDS);
 		WebElement element = null;
 		int count = elements.size();
+		
+		// visibility of all elements in one script call
+		if (count > 1 && isClientPolling && ElementLookup.isScriptSupported(webDriver, this.element)) {
+			try {
+				int index = ElementLookup.getFirstVisibleIndex(webDriver, elements);
+				setTimeout(AbstractDriver.TIMEOUT_IMPLICIT_SECONDS, TimeUnit.SECONDS);
+				return index == -1 ? null : elements.get(index);
+			} catch (Exception e) {
+				e.getMessage();
+			}
+		}
+		
 		if (count > 1) {
 			for (int i = 0; i < elements.size(); i++) {
 				if (elements.get(i).isDisplayed()) {
@@ -746,7 +827,92 @@ public class ImpEnhancedWebElement implements EnhancedWebElement {
 		return cause;
 	}
 	
+	/**
+	 * returns true if resolved elements are cached for the page. see LocatorCache
+	 * used when lookup takes more than one driver call: parent lookup, or multiple
+	 * locators without script lookup. lists are not cached, their size can change
+	 * @return
+	 */
+	private boolean isCacheLookup() {
+		if (webDriver == null || !LocatorCache.isEnabled())
+			return false;
+		return parent != null || (this.element.elementObject.size() > 1 && !isScriptLookup());
+	}
+	
+	private String getCacheKey() {
+		if (cacheKey == null)
+			cacheKey = LocatorCache.getKey(parent, parentIndex, element);
+		return cacheKey;
+	}
+	
+	/**
+	 * locator indexes in lookup order, locator that matched last is first
+	 * @param matchedLocator
+	 * @return
+	 */
+	private List<Integer> getLocatorOrder(int matchedLocator) {
+		List<Integer> order = new ArrayList<Integer>();
+		if (matchedLocator != -1)
+			order.add(matchedLocator);
+		for (int i = 0; i < this.element.elementObject.size(); i++) {
+			if (i != matchedLocator)
+				order.add(i);
+		}
+		return order;
+	}
+	
+	private void setMatchedLocator(int index) {
+		if (this.element.elementObject.size() > 1)
+			LocatorCache.setMatchedLocator(this.element, index);
+	}
+	
+	/**
+	 * returns true if element lookup is done by script. see ElementLookup
+	 * @return
+	 */
+	private boolean isScriptLookup() {
+		if (!isClientPolling || !ElementLookup.isScriptSupported(webDriver, this.element))
+			return false;
+		return this.parentElements.isEmpty() || parentIndex < this.parentElements.size();
+	}
+	
+	/**
+	 * parent element to search in, null if no parent is set
+	 * @return
+	 */
+	private WebElement getContextElement() {
+		return this.parentElements.isEmpty() ? null : this.parentElements.get(parentIndex);
+	}
+	
+	private void setLocator(int index) {
+		ElementObject elementObject = this.element.elementObject.get(index);
+		this.by = elementObject.by;
+		this.locatorType = elementObject.locatorType;
+	}
+	
+	/**
+	 * finds elements in context. with client polling, lookups poll until lookup timeout
+	 * @param context
+	 * @param by
+	 * @return
+	 */
+	private List<WebElement> findElements(SearchContext context, By by) {
+		if (isClientPolling)
+			return ElementLookup.findElements(context, by, lookupTimeoutMillis);
+		return context.findElements(by);
+	}
+	
+	/**
+	 * sets lookup timeout. with client polling, timeout is kept on the client And
+	 * driver stays at zero implicit wait
+	 * @param time
+	 * @param unit
+	 */
 	private void setTimeout(long time, TimeUnit unit) {
+		if (isClientPolling) {
+			lookupTimeoutMillis = unit.toMillis(time);
+			return;
+		}
 		if(webDriver == null ) return;
 		try {
 			webDriver.manage().timeouts().implicitlyWait(time, unit);
@@ -0,0 +1,228 @@
+package core.uiCore.webElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import core.support.configReader.Config;
+import io.appium.java_client.AppiumDriver;
+
+/**
+ * cache of resolved elements, per driver and page
+ * a page is identified by a navigation counter, incremented by page helper navigation And explicit invalidation,
+ * and on web drivers by a marker stored in the current document
+ * cached elements are validated in one call before use: document marker And attached elements on web, element state on
+ * appium. failed validation, stale elements and navigation remove the cached elements
+ * the locator that matched last for an element is kept across pages, so lookups try it first
+ */
+public class LocatorCache {
+
+	public static final String LOCATOR_CACHE_ENABLED = "global.lookup.cache.isEnabled";
+
+	private static final int MAX_CACHED_ELEMENTS = 2000;
+	private static final int MAX_MATCHED_LOCATORS = 5000;
+
+	// returns null if elements are valid, empty string if an element is detached, else the marker of the current document
+	private static final String VALIDATE_SCRIPT = "var elements = arguments[0], marker = arguments[1];"
+			+ "if (!document.autonomxPageMarker) document.autonomxPageMarker = arguments[2];"
+			+ "if (document.autonomxPageMarker !== marker) return document.autonomxPageMarker;"
+			+ "for (var i = 0; i < elements.length; i++) if (!elements[i].isConnected) return '';"
+			+ "return null;";
+
+	private static final Map<WebDriver, PageCache> drivers = Collections
+			.synchronizedMap(new WeakHashMap<WebDriver, PageCache>());
+
+	// key: element locators. value: index of locator that matched last
+	private static final Map<String, Integer> matchedLocators = new ConcurrentHashMap<String, Integer>();
+
+	/**
+	 * cached elements of a driver, for the current page
+	 */
+	private static class PageCache {
+		final AtomicLong navigationCount = new AtomicLong();
+		volatile String pageMarker = null; // document marker on web drivers
+		final Map<String, CachedElements> elements = new ConcurrentHashMap<String, CachedElements>();
+	}
+
+	private static class CachedElements {
+		final List<WebElement> elements;
+		final long navigationCount;
+		final String pageMarker;
+
+		CachedElements(List<WebElement> elements, long navigationCount, String pageMarker) {
+			this.elements = elements;
+			this.navigationCount = navigationCount;
+			this.pageMarker = pageMarker;
+		}
+	}
+
+	/**
+	 * locator cache is enabled by default. global.lookup.cache.isEnabled
+	 *
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		String value = Config.getValue(LOCATOR_CACHE_ENABLED);
+		return value.isEmpty() || Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * cache key of element, including its parent
+	 *
+	 * @param parent
+	 * @param parentIndex
+	 * @param element
+	 * @return
+	 */
+	public static String getKey(EnhancedBy parent, int parentIndex, EnhancedBy element) {
+		String key = getLocatorKey(element);
+		if (parent != null)
+			key = getLocatorKey(parent) + "[" + parentIndex + "]>" + key;
+		return key;
+	}
+
+	/**
+	 * returns cached elements if they are still valid on the current page
+	 *
+	 * @param driver
+	 * @param key
+	 * @return elements, or null if not cached or no longer valid
+	 */
+	public static List<WebElement> get(WebDriver driver, String key) {
+		PageCache cache = getPageCache(driver);
+		CachedElements cached = cache.elements.get(key);
+		if (cached == null)
+			return null;
+
+		if (cached.navigationCount != cache.navigationCount.get() || !isValid(driver, cache, cached)) {
+			cache.elements.remove(key, cached);
+			return null;
+		}
+		return new ArrayList<WebElement>(cached.elements);
+	}
+
+	/**
+	 * caches resolved elements for the current page
+	 *
+	 * @param driver
+	 * @param key
+	 * @param elements
+	 */
+	public static void put(WebDriver driver, String key, List<WebElement> elements) {
+		if (elements == null || elements.isEmpty() || elements.contains(null))
+			return;
+
+		PageCache cache = getPageCache(driver);
+		if (cache.elements.size() >= MAX_CACHED_ELEMENTS)
+			cache.elements.clear();
+		cache.elements.put(key,
+				new CachedElements(new ArrayList<WebElement>(elements), cache.navigationCount.get(), cache.pageMarker));
+	}
+
+	/**
+	 * removes cached elements. eg. stale element
+	 *
+	 * @param driver
+	 * @param key
+	 */
+	public static void invalidate(WebDriver driver, String key) {
+		if (driver == null)
+			return;
+		PageCache cache = drivers.get(driver);
+		if (cache != null)
+			cache.elements.remove(key);
+	}
+
+	/**
+	 * removes all cached elements of driver. called on navigation, And can be called after changes to the page that
+	 * replace elements
+	 *
+	 * @param driver
+	 */
+	public static void invalidate(WebDriver driver) {
+		if (driver == null)
+			return;
+		PageCache cache = drivers.get(driver);
+		if (cache == null)
+			return;
+		cache.navigationCount.incrementAndGet();
+		cache.elements.clear();
+	}
+
+	/**
+	 * index of locator that matched last for element
+	 *
+	 * @param element
+	 * @return index, -1 if not known
+	 */
+	public static int getMatchedLocator(EnhancedBy element) {
+		Integer index = matchedLocators.get(getLocatorKey(element));
+		return index == null || index >= element.elementObject.size() ? -1 : index;
+	}
+
+	public static void setMatchedLocator(EnhancedBy element, int index) {
+		if (matchedLocators.size() >= MAX_MATCHED_LOCATORS)
+			matchedLocators.clear();
+		matchedLocators.put(getLocatorKey(element), index);
+	}
+
+	/**
+	 * validates cached elements in one driver call
+	 *
+	 * @param driver
+	 * @param cache
+	 * @param cached
+	 * @return
+	 */
+	private static boolean isValid(WebDriver driver, PageCache cache, CachedElements cached) {
+		try {
+			if (driver instanceof JavascriptExecutor && !(driver instanceof AppiumDriver)) {
+				Object marker = ((JavascriptExecutor) driver).executeScript(VALIDATE_SCRIPT, cached.elements,
+						cached.pageMarker, UUID.randomUUID().toString());
+				if (marker == null)
+					return true;
+
+				// page has changed, elements cached on the previous page are dropped
+				String pageMarker = marker.toString();
+				if (!pageMarker.isEmpty() && !pageMarker.equals(cache.pageMarker)) {
+					cache.pageMarker = pageMarker;
+					cache.elements.clear();
+				}
+				return false;
+			}
+
+			// any call on a stale element fails
+			cached.elements.get(0).isEnabled();
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static PageCache getPageCache(WebDriver driver) {
+		synchronized (drivers) {
+			PageCache cache = drivers.get(driver);
+			if (cache == null) {
+				cache = new PageCache();
+				drivers.put(driver, cache);
+			}
+			return cache;
+		}
+	}
+
+	private static String getLocatorKey(EnhancedBy element) {
+		StringBuilder key = new StringBuilder();
+		for (ElementObject elementObject : element.elementObject)
+			key.append(elementObject.by).append('|');
+		return key.toString();
+	}
+}